@@ -21,7 +21,13 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.net.URL;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.ProvisionException;
 
@@ -52,6 +58,23 @@ import com.google.inject.ProvisionException;
  *     }
  * }
  * </pre>
+ * <p>
+ * The properties are loaded once and safely published to all threads. With
+ * {@link #withEagerLoading()} the properties are loaded in the background as
+ * soon as the provider is injected, for example when the Guice injector is
+ * created, and {@link #get()} only blocks if the loading is not yet finished.
+ *
+ * <pre>
+ * &#064;Singleton
+ * public class FooPropertiesProvider
+ *         extends AbstractContextPropertiesProvider {
+ *
+ *     FooPropertiesProvider() {
+ *         super(Foo.class, RESOURCE);
+ *         withEagerLoading();
+ *     }
+ * }
+ * </pre>
  *
  * @author Erwin Mueller, erwin.mueller@deventm.org
  * @since 1.9
@@ -66,9 +89,15 @@ public class AbstractContextPropertiesProvider
 
     private final URL resource;
 
-    private ContextProperties properties;
+    private volatile ContextProperties properties;
 
-    private Properties defaultProperties;
+    private volatile Properties defaultProperties;
+
+    private boolean eagerLoading;
+
+    private boolean sharedResources;
+
+    private transient volatile CompletableFuture<ContextProperties> loading;
 
     /**
      * Sets the properties context and the properties resource.
@@ -122,6 +151,89 @@ public class AbstractContextPropertiesProvider
         this.defaultProperties = p;
     }
 
+    /**
+     * Loads the properties in the background as soon as the provider is
+     * injected.
+     *
+     * @return this {@link AbstractContextPropertiesProvider}.
+     *
+     * @see #loadPropertiesAsync()
+     *
+     * @since 4.7.0
+     */
+    protected AbstractContextPropertiesProvider withEagerLoading() {
+        this.eagerLoading = true;
+        return this;
+    }
+
+    /**
+     * Shares the loaded resource with all providers and factories in the
+     * process.
+     *
+     * @return this {@link AbstractContextPropertiesProvider}.
+     *
+     * @see ContextPropertiesFactory#withSharedResources()
+     *
+     * @since 4.7.0
+     */
+    protected AbstractContextPropertiesProvider withSharedResources() {
+        this.sharedResources = true;
+        return this;
+    }
+
+    /**
+     * Starts the loading of the properties if the eager loading is enabled.
+     * Called by Guice after the provider is created.
+     */
+    @Inject
+    void startEagerLoading() {
+        if (eagerLoading) {
+            loadPropertiesAsync();
+        }
+    }
+
+    /**
+     * Starts to load the properties in the background. The properties are only
+     * loaded once, also if this method is called multiple times or while the
+     * properties are loaded by {@link #getProperties()}. If the loading fails the
+     * next call starts the loading again.
+     *
+     * @return the {@link CompletableFuture} of the loaded properties.
+     *
+     * @since 4.7.0
+     */
+    public synchronized CompletableFuture<ContextProperties> loadPropertiesAsync() {
+        ContextProperties p = properties;
+        if (p != null) {
+            return CompletableFuture.completedFuture(p);
+        }
+        CompletableFuture<ContextProperties> f = loading;
+        if (f == null) {
+            f = CompletableFuture.supplyAsync(this::loadProperties, Loader.EXECUTOR);
+            loading = f;
+            CompletableFuture<ContextProperties> started = f;
+            f.whenComplete((v, e) -> {
+                if (e != null) {
+                    loadingFailed(started);
+                }
+            });
+        }
+        return f;
+    }
+
+    /**
+     * Returns if the loading of the properties is started or finished.
+     */
+    boolean isLoadingStarted() {
+        return properties != null || loading != null;
+    }
+
+    private synchronized void loadingFailed(CompletableFuture<ContextProperties> f) {
+        if (loading == f) {
+            loading = null;
+        }
+    }
+
     /**
      * @see #getProperties()
      */
@@ -132,6 +244,9 @@ public class AbstractContextPropertiesProvider
 
     /**
      * Loads and returns the context properties from the resource.
+     * <p>
+     * If the properties are loaded in the background, waits until the loading
+     * is finished.
      *
      * @return the {@link ContextProperties}.
      *
@@ -139,23 +254,67 @@ public class AbstractContextPropertiesProvider
      *             if there was an error loading the properties.
      */
     public ContextProperties getProperties() {
-        if (properties == null) {
-            loadProperties();
+        ContextProperties p = properties;
+        if (p != null) {
+            return p;
+        }
+        CompletableFuture<ContextProperties> f = loading;
+        if (f != null) {
+            return awaitProperties(f);
+        }
+        return loadProperties();
+    }
+
+    private ContextProperties awaitProperties(CompletableFuture<ContextProperties> f) {
+        try {
+            return f.join();
+        } catch (CompletionException e) {
+            loadingFailed(f);
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new ProvisionException(format(LOAD_MESSAGE, resource), e.getCause());
         }
-        return properties;
     }
 
-    private synchronized void loadProperties() {
+    private synchronized ContextProperties loadProperties() {
+        ContextProperties p = properties;
+        if (p != null) {
+            return p;
+        }
         try {
-            ContextPropertiesFactory p = new ContextPropertiesFactory(context)
+            ContextPropertiesFactory factory = new ContextPropertiesFactory(context)
                     .withProperties(System.getProperties());
             if (defaultProperties != null) {
-                p.withDefaultProperties(defaultProperties);
+                factory.withDefaultProperties(defaultProperties);
             }
-            properties = p.fromResource(resource);
+            if (sharedResources) {
+                factory.withSharedResources();
+            }
+            p = factory.fromResource(resource);
+            properties = p;
+            return p;
         } catch (IOException e) {
             throw new ProvisionException(format(LOAD_MESSAGE, resource), e);
         }
     }
 
+    /**
+     * Holds the executor of the background loading, created on first use.
+     * The threads are daemon threads so that they do not prevent the shutdown
+     * of the application.
+     */
+    private static final class Loader {
+
+        private static final Executor EXECUTOR = createExecutor();
+
+        private static ExecutorService createExecutor() {
+            return Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r, "context-properties-loader");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
 }
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2012-2021 Erwin Müller <erwin.mueller@anrisoftware.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anrisoftware.propertiesutils;
+
+import static java.lang.String.format;
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
+import static java.nio.file.StandardOpenOption.READ;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Memory mapped blob files that are referenced by binary properties.
+ * <p>
+ * A blob reference has the format {@code @blob:<path>} or
+ * {@code @blob:<path>#<offset>,<length>}. The file is mapped read-only once
+ * and the mapping is shared in the process, so all readers of the blob share
+ * the page cache. The file is mapped again if its last modification time or
+ * its length changed and the mapping is dropped if the file is deleted. At
+ * most {@value #MAXIMUM_ENTRIES} mappings are shared, the least recently used
+ * mapping is dropped first. The file must be inside of the blob directory,
+ * also if the path is absolute. Files larger than 2 GiB are not shared, only
+ * the referenced range is mapped.
+ *
+ * @author Erwin Müller, erwin.mueller@deventm.de
+ * @since 4.7.0
+ */
+final class BlobFiles {
+
+    static final String BLOB_PREFIX = "@blob:";
+
+    private static final String RANGE_MESSAGE = "The range %d,%d is outside of the blob file '%s' of the length %d.";
+
+    private static final String OUTSIDE_MESSAGE = "The blob file '%s' is outside of the blob directory '%s'.";
+
+    private static final String TOO_LARGE_MESSAGE = "The range %d,%d of the blob file '%s' is larger than 2 GiB.";
+
+    static final int MAXIMUM_ENTRIES = 256;
+
+    private static final LinkedHashMap<Path, Entry> ENTRIES = new LinkedHashMap<>(16, 0.75f, true);
+
+    private BlobFiles() {
+    }
+
+    /**
+     * Returns if the property value is a blob reference.
+     */
+    static boolean isBlob(String value) {
+        return value.startsWith(BLOB_PREFIX);
+    }
+
+    /**
+     * Returns if the mapping of the file is shared.
+     */
+    static boolean isMapped(Path file) {
+        synchronized (ENTRIES) {
+            return ENTRIES.containsKey(file);
+        }
+    }
+
+    /**
+     * Returns the read-only buffer of the referenced blob.
+     *
+     * @param value     the blob reference.
+     *
+     * @param directory the {@link Path} of the directory that relative paths are
+     *                  resolved against, or {@code null} for the current
+     *                  directory.
+     *
+     * @return the read-only {@link ByteBuffer} of the blob.
+     *
+     * @throws IllegalArgumentException if the range is outside of the file or
+     *                                  the file is outside of the directory.
+     *
+     * @throws IOException              if there was an error mapping the file.
+     */
+    static ByteBuffer map(String value, Path directory) throws IOException {
+        String reference = value.substring(BLOB_PREFIX.length());
+        long offset = 0;
+        long length = -1;
+        int range = reference.lastIndexOf('#');
+        int comma = reference.lastIndexOf(',');
+        if (range != -1 && comma > range && isDigits(reference, range + 1, comma)
+                && isDigits(reference, comma + 1, reference.length())) {
+            offset = Long.parseLong(reference.substring(range + 1, comma));
+            length = Long.parseLong(reference.substring(comma + 1));
+            reference = reference.substring(0, range);
+        }
+        Path base = (directory == null ? Paths.get("") : directory).toAbsolutePath().normalize();
+        Path file = base.resolve(reference).normalize();
+        if (!file.startsWith(base)) {
+            throw new IllegalArgumentException(format(OUTSIDE_MESSAGE, file, base));
+        }
+        Path realFile;
+        try {
+            realFile = file.toRealPath();
+        } catch (NoSuchFileException e) {
+            synchronized (ENTRIES) {
+                ENTRIES.remove(file);
+            }
+            throw e;
+        }
+        if (!realFile.startsWith(base.toRealPath())) {
+            throw new IllegalArgumentException(format(OUTSIDE_MESSAGE, file, base));
+        }
+        // the checked real path is opened, not following a link that is set
+        // after the check
+        long size = Files.size(realFile);
+        if (length == -1) {
+            length = size - offset;
+        }
+        if (offset > size || offset + length > size) {
+            throw new IllegalArgumentException(format(RANGE_MESSAGE, offset, length, file, size));
+        }
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(format(TOO_LARGE_MESSAGE, offset, length, file));
+        }
+        if (size > Integer.MAX_VALUE) {
+            try (FileChannel channel = FileChannel.open(realFile, READ, NOFOLLOW_LINKS)) {
+                return channel.map(MapMode.READ_ONLY, offset, length).asReadOnlyBuffer();
+            }
+        }
+        ByteBuffer buffer = mapFile(file, realFile, size).duplicate();
+        buffer.position((int) offset).limit((int) (offset + length));
+        return buffer.slice().asReadOnlyBuffer();
+    }
+
+    private static boolean isDigits(String s, int begin, int end) {
+        if (begin == end) {
+            return false;
+        }
+        for (int i = begin; i < end; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the shared mapping of the file. The mapping is dropped and the
+     * file is mapped again if the real path, the last modification time or the
+     * length of the file changed.
+     */
+    private static ByteBuffer mapFile(Path file, Path realFile, long size) throws IOException {
+        long stamp = Files.getLastModifiedTime(realFile).toMillis() * 31 + size;
+        synchronized (ENTRIES) {
+            Entry entry = ENTRIES.get(file);
+            if (entry != null && entry.stamp == stamp && entry.realFile.equals(realFile)) {
+                return entry.buffer;
+            }
+            ENTRIES.remove(file);
+        }
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(realFile, READ, NOFOLLOW_LINKS)) {
+            buffer = channel.map(MapMode.READ_ONLY, 0, size);
+        }
+        synchronized (ENTRIES) {
+            ENTRIES.put(file, new Entry(realFile, stamp, buffer));
+            Iterator<Entry> it = ENTRIES.values().iterator();
+            while (ENTRIES.size() > MAXIMUM_ENTRIES) {
+                it.next();
+                it.remove();
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Reads the remaining bytes of a buffer.
+     */
+    static final class BufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
+    private static final class Entry {
+
+        private final Path realFile;
+
+        private final long stamp;
+
+        private final ByteBuffer buffer;
+
+        Entry(Path realFile, long stamp, ByteBuffer buffer) {
+            this.realFile = realFile;
+            this.stamp = stamp;
+            this.buffer = buffer;
+        }
+    }
+}
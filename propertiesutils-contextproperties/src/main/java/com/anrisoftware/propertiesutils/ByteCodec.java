@@ -0,0 +1,73 @@
+/*
+ * Copyright 2012-2021 Erwin Müller <erwin.mueller@anrisoftware.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anrisoftware.propertiesutils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Serializable;
+
+/**
+ * Decodes the binary data of a property value.
+ *
+ * @see ByteProperties#withCodec(ByteCodec)
+ * @see StandardByteCodec
+ *
+ * @author Erwin Müller, erwin.mueller@deventm.de
+ * @since 4.7.0
+ */
+public interface ByteCodec extends Serializable {
+
+    /**
+     * Returns if the value is encoded by this codec, for example if the value
+     * starts with the prefix of the codec.
+     *
+     * @param value the property value.
+     *
+     * @return {@code true} if the value is encoded by this codec.
+     */
+    boolean isEncoded(String value);
+
+    /**
+     * Decodes the binary data from the value.
+     *
+     * @param value the property value, with or without the prefix of the codec.
+     *
+     * @return the {@link Byte} array data.
+     *
+     * @throws IllegalArgumentException if the value is not correctly encoded.
+     */
+    byte[] decode(String value);
+
+    /**
+     * Decodes the binary data from the value while the stream is read. The
+     * default implementation decodes all data first.
+     *
+     * @param value the property value, with or without the prefix of the codec.
+     *
+     * @return the {@link InputStream} of the data.
+     *
+     * @throws IllegalArgumentException if the value is not correctly encoded.
+     *                                  Codecs that decode while the stream is
+     *                                  read throw an {@link java.io.IOException}
+     *                                  from the stream instead.
+     *
+     * @since 4.7.0
+     */
+    default InputStream decodeStream(String value) {
+        return new ByteArrayInputStream(decode(value));
+    }
+
+}
@@ -15,7 +15,10 @@
  */
 package com.anrisoftware.propertiesutils;
 
+import java.io.File;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 import java.util.Properties;
 
 /**
@@ -72,27 +75,130 @@ public class ByteContextProperties extends ContextProperties {
     }
 
     /**
-     * Returns a data from a ROT13 property string.
+     * Adds the codec to the detected codecs.
+     *
+     * @param codec the {@link ByteCodec}.
+     *
+     * @return this {@link ByteContextProperties}.
+     *
+     * @see ByteProperties#withCodec(ByteCodec)
+     *
+     * @since 4.7.0
+     */
+    public ByteContextProperties withCodec(ByteCodec codec) {
+        byteProperties.withCodec(codec);
+        return this;
+    }
+
+    /**
+     * Sets the codec for the property.
+     *
+     * @param key   the property key.
+     *
+     * @param codec the {@link ByteCodec}.
+     *
+     * @return this {@link ByteContextProperties}.
+     *
+     * @see ByteProperties#withCodec(String, ByteCodec)
+     *
+     * @since 4.7.0
+     */
+    public ByteContextProperties withCodec(String key, ByteCodec codec) {
+        byteProperties.withCodec(key, codec);
+        return this;
+    }
+
+    /**
+     * Sets the directory that the relative paths of blob references are
+     * resolved against.
+     *
+     * @param directory the blob directory {@link File}.
+     *
+     * @return this {@link ByteContextProperties}.
+     *
+     * @see ByteProperties#withBlobDirectory(File)
+     *
+     * @since 4.7.0
+     */
+    public ByteContextProperties withBlobDirectory(File directory) {
+        byteProperties.withBlobDirectory(directory);
+        return this;
+    }
+
+    /**
+     * Caches the decoded data of the binary properties.
+     *
+     * @param maximumBytes the maximum count of the cached bytes.
+     *
+     * @return this {@link ByteContextProperties}.
+     *
+     * @see ByteProperties#withDataCache(long)
+     *
+     * @since 4.7.0
+     */
+    public ByteContextProperties withDataCache(long maximumBytes) {
+        byteProperties.withDataCache(maximumBytes);
+        return this;
+    }
+
+    /**
+     * Returns the data of a binary property.
      *
      * @param key
      *            the property key.
      *
      * @return the {@link Byte} array data.
+     *
+     * @see ByteProperties#getDataProperty(String)
      */
     public byte[] getDataProperty(String key) {
         return byteProperties.getDataProperty(key);
     }
 
     /**
-     * Returns a data from a ROT13 property string as a stream.
+     * Returns the data of a binary property as a stream.
      *
      * @param key
      *            the property key.
      *
      * @return the {@link InputStream} data.
+     *
+     * @see ByteProperties#getDataPropertyStream(String)
      */
     public InputStream getDataPropertyStream(String key) {
         return byteProperties.getDataPropertyStream(key);
     }
 
+    /**
+     * Returns the data of a binary property as a read-only buffer.
+     *
+     * @param key
+     *            the property key.
+     *
+     * @return the read-only {@link ByteBuffer}.
+     *
+     * @see ByteProperties#getDataPropertyBuffer(String)
+     *
+     * @since 4.7.0
+     */
+    public ByteBuffer getDataPropertyBuffer(String key) {
+        return byteProperties.getDataPropertyBuffer(key);
+    }
+
+    /**
+     * Returns the data of a binary property as a channel.
+     *
+     * @param key
+     *            the property key.
+     *
+     * @return the {@link ReadableByteChannel} data.
+     *
+     * @see ByteProperties#getDataPropertyChannel(String)
+     *
+     * @since 4.7.0
+     */
+    public ReadableByteChannel getDataPropertyChannel(String key) {
+        return byteProperties.getDataPropertyChannel(key);
+    }
+
 }
@@ -15,17 +15,41 @@
  */
 package com.anrisoftware.propertiesutils;
 
-import java.io.ByteArrayInputStream;
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
-import com.thoughtworks.xstream.XStream;
-
 /**
  * Extends the utility to return typed properties for byte-streams.
+ * <p>
+ * The binary data is decoded with a {@link ByteCodec}. The codec is selected
+ * by the key of the property if a codec was set for the key, otherwise it is
+ * detected from the value: first the codecs added with
+ * {@link #withCodec(ByteCodec)} are tried, then the
+ * {@link StandardByteCodec}s. Values that are not detected are decoded with
+ * {@link StandardByteCodec#XSTREAM}. The codecs are created once and reused.
+ * <p>
+ * A value can also reference a blob file with {@code @blob:<path>} or
+ * {@code @blob:<path>#<offset>,<length>} instead of the encoded data. The blob
+ * file is memory mapped read-only and the mapping is shared in the process.
+ * Relative paths are resolved against the blob directory and the file must be
+ * inside of the blob directory, see {@link #withBlobDirectory(File)}.
+ * <p>
+ * The decoded data can be cached with {@link #withDataCache(long)}.
  *
  * @author Erwin Müller, erwin.mueller@deventm.de
  * @since 2.1
@@ -33,6 +57,18 @@ import com.thoughtworks.xstream.XStream;
 @SuppressWarnings("serial")
 public class ByteProperties extends TypedProperties {
 
+    private static final StandardByteCodec[] STANDARD_CODECS = StandardByteCodec.values();
+
+    private final List<ByteCodec> codecs = new CopyOnWriteArrayList<>();
+
+    private final Map<String, ByteCodec> keyCodecs = new ConcurrentHashMap<>();
+
+    private volatile File blobDirectory;
+
+    private long dataCacheSize;
+
+    private transient volatile DataCache dataCache;
+
     public ByteProperties(Map<String, Object> properties, String listSepChars) {
         super(properties, listSepChars);
     }
@@ -50,31 +86,258 @@ public class ByteProperties extends TypedProperties {
     }
 
     /**
-     * Returns a data from a ROT13 property string.
+     * Adds the codec to the detected codecs. The added codecs are tried before
+     * the standard codecs, in the order they were added.
+     *
+     * @param codec the {@link ByteCodec}.
+     *
+     * @return this {@link ByteProperties}.
+     *
+     * @since 4.7.0
+     */
+    public ByteProperties withCodec(ByteCodec codec) {
+        notNull(codec);
+        codecs.add(codec);
+        return this;
+    }
+
+    /**
+     * Sets the codec for the property. The value of the property is always
+     * decoded with the codec.
+     *
+     * @param key   the property key.
+     *
+     * @param codec the {@link ByteCodec}.
+     *
+     * @return this {@link ByteProperties}.
+     *
+     * @since 4.7.0
+     */
+    public ByteProperties withCodec(String key, ByteCodec codec) {
+        notNull(key);
+        notNull(codec);
+        keyCodecs.put(key, codec);
+        return this;
+    }
+
+    /**
+     * Sets the directory that the relative paths of blob references are
+     * resolved against. Per default the paths are resolved against the current
+     * directory. A blob file outside of the blob directory is rejected.
+     *
+     * @param directory the blob directory {@link File}.
+     *
+     * @return this {@link ByteProperties}.
+     *
+     * @since 4.7.0
+     */
+    public ByteProperties withBlobDirectory(File directory) {
+        notNull(directory);
+        this.blobDirectory = directory;
+        return this;
+    }
+
+    /**
+     * Caches the decoded data of the binary properties.
+     * <p>
+     * The data of a property is decoded once and returned from the cache as
+     * long as the property value and its codec do not change. If the cached
+     * data exceeds the budget the least recently used data is evicted. The
+     * cached data is returned as read-only buffers, as streams or as copies,
+     * so the cached data cannot be modified. The data of blob references is not
+     * cached, blob files are already shared.
+     *
+     * @param maximumBytes the maximum count of the cached bytes.
+     *
+     * @return this {@link ByteProperties}.
+     *
+     * @since 4.7.0
+     */
+    public ByteProperties withDataCache(long maximumBytes) {
+        isTrue(maximumBytes > 0, "The maximum bytes must be positive.");
+        this.dataCacheSize = maximumBytes;
+        this.dataCache = new DataCache(maximumBytes);
+        return this;
+    }
+
+    /**
+     * Returns the codec for the property value.
+     *
+     * @param key      the property key.
+     *
+     * @param property the property value.
+     *
+     * @return the {@link ByteCodec}.
+     *
+     * @since 4.7.0
+     */
+    public ByteCodec getCodec(String key, String property) {
+        ByteCodec codec = keyCodecs.get(key);
+        if (codec != null) {
+            return codec;
+        }
+        for (ByteCodec c : codecs) {
+            if (c.isEncoded(property)) {
+                return c;
+            }
+        }
+        for (ByteCodec c : STANDARD_CODECS) {
+            if (c.isEncoded(property)) {
+                return c;
+            }
+        }
+        return StandardByteCodec.XSTREAM;
+    }
+
+    /**
+     * Returns the data of a binary property.
      *
      * @param key
      *            the property key.
      *
-     * @return the {@link Byte} array data.
+     * @return the {@link Byte} array data or {@code null} if no property with
+     *         the key was found.
+     *
+     * @throws IllegalArgumentException if the value is not correctly encoded.
      */
     public byte[] getDataProperty(String key) {
         String property = getProperty(key);
-        byte[] data = (byte[]) new XStream().fromXML(property);
+        if (property == null) {
+            return null;
+        }
+        if (BlobFiles.isBlob(property)) {
+            ByteBuffer buffer = mapBlob(property);
+            byte[] data = new byte[buffer.remaining()];
+            buffer.get(data);
+            return data;
+        }
+        DataCache cache = getDataCache();
+        if (cache == null) {
+            return getCodec(key, property).decode(property);
+        }
+        return decodeCached(cache, key, property).clone();
+    }
+
+    /**
+     * Returns the data of a binary property as a read-only buffer.
+     * <p>
+     * The buffer of a blob reference is a slice of the memory mapped blob file,
+     * the data is not copied. The data of an encoded value is decoded.
+     *
+     * @param key
+     *            the property key.
+     *
+     * @return the read-only {@link ByteBuffer} or {@code null} if no property
+     *         with the key was found.
+     *
+     * @throws IllegalArgumentException if the value is not correctly encoded or
+     *                                  the range of the blob reference is
+     *                                  outside of the blob file.
+     *
+     * @throws UncheckedIOException     if the blob file could not be mapped.
+     *
+     * @since 4.7.0
+     */
+    public ByteBuffer getDataPropertyBuffer(String key) {
+        String property = getProperty(key);
+        if (property == null) {
+            return null;
+        }
+        if (BlobFiles.isBlob(property)) {
+            return mapBlob(property);
+        }
+        DataCache cache = getDataCache();
+        byte[] data;
+        if (cache == null) {
+            data = getCodec(key, property).decode(property);
+        } else {
+            data = decodeCached(cache, key, property);
+        }
+        return ByteBuffer.wrap(data).asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the decoded data from the cache. The returned array is shared and
+     * must not be modified.
+     */
+    private byte[] decodeCached(DataCache cache, String key, String property) {
+        ByteCodec codec = getCodec(key, property);
+        byte[] data = cache.get(key, property, codec);
+        if (data == null) {
+            data = codec.decode(property);
+            cache.put(key, property, codec, data);
+        }
         return data;
     }
 
+    private DataCache getDataCache() {
+        DataCache cache = this.dataCache;
+        if (cache == null && dataCacheSize > 0) {
+            cache = new DataCache(dataCacheSize);
+            this.dataCache = cache;
+        }
+        return cache;
+    }
+
+    private ByteBuffer mapBlob(String property) {
+        File directory = blobDirectory;
+        try {
+            return BlobFiles.map(property, directory == null ? null : directory.toPath());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     /**
-     * Returns a data from a ROT13 property string as a stream.
+     * Returns the data of a binary property as a stream.
+     * <p>
+     * The data is decoded while the stream is read, so the data is not copied
+     * into memory if the codec supports streaming.
      *
      * @param key
      *            the property key.
      *
-     * @return the {@link InputStream} data.
+     * @return the {@link InputStream} data or {@code null} if no property with
+     *         the key was found.
+     *
+     * @throws IllegalArgumentException if the value is not correctly encoded.
+     *
+     * @see ByteCodec#decodeStream(String)
      */
     public InputStream getDataPropertyStream(String key) {
         String property = getProperty(key);
-        byte[] data = (byte[]) new XStream().fromXML(property);
-        return new ByteArrayInputStream(data);
+        if (property == null) {
+            return null;
+        }
+        if (BlobFiles.isBlob(property)) {
+            return new BlobFiles.BufferInputStream(mapBlob(property));
+        }
+        DataCache cache = getDataCache();
+        if (cache != null) {
+            return new BlobFiles.BufferInputStream(ByteBuffer.wrap(decodeCached(cache, key, property)));
+        }
+        return getCodec(key, property).decodeStream(property);
+    }
+
+    /**
+     * Returns the data of a binary property as a channel.
+     * <p>
+     * The data is decoded while the channel is read into the buffers of the
+     * caller.
+     *
+     * @param key
+     *            the property key.
+     *
+     * @return the {@link ReadableByteChannel} data or {@code null} if no
+     *         property with the key was found.
+     *
+     * @throws IllegalArgumentException if the value is not correctly encoded.
+     *
+     * @since 4.7.0
+     */
+    public ReadableByteChannel getDataPropertyChannel(String key) {
+        InputStream stream = getDataPropertyStream(key);
+        return stream == null ? null : Channels.newChannel(stream);
     }
 
     @Override
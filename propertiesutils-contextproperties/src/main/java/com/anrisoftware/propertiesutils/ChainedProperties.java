@@ -0,0 +1,242 @@
+/*
+ * Copyright 2012-2021 Erwin Müller <erwin.mueller@anrisoftware.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anrisoftware.propertiesutils;
+
+import static java.util.Collections.unmodifiableCollection;
+import static java.util.Collections.unmodifiableSet;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Read-only view of a layer of properties over the default properties.
+ * <p>
+ * The entries of the layer are looked up before the default properties. The
+ * layer and the default properties are not copied, so that many views can share
+ * the same immutable resource properties and a change of the default properties
+ * is visible in the view, as is a change of the layer. Only the entries of the
+ * layer itself are part of the view, the default properties of a
+ * {@link Properties} layer are not looked up.
+ * <p>
+ * All methods that would modify the properties throw
+ * {@link UnsupportedOperationException}.
+ *
+ * @author Erwin Müller, erwin.mueller@deventm.de
+ * @since 4.7.0
+ */
+@SuppressWarnings("serial")
+final class ChainedProperties extends Properties {
+
+    private static final String IMMUTABLE_MESSAGE = "The properties are a view.";
+
+    private final Map<?, ?> layer;
+
+    /**
+     * Sets the layer and the default properties.
+     *
+     * @param layer    the {@link Map} of the properties that are looked up
+     *                 first.
+     *
+     * @param defaults the default {@link Properties} or {@code null}.
+     */
+    ChainedProperties(Map<?, ?> layer, Properties defaults) {
+        super(defaults);
+        this.layer = layer;
+    }
+
+    /**
+     * Returns the layer of the view.
+     */
+    Map<?, ?> getLayer() {
+        return layer;
+    }
+
+    /**
+     * Returns the default properties of the view.
+     */
+    Properties getDefaults() {
+        return defaults;
+    }
+
+    @Override
+    public String getProperty(String key) {
+        Object value = layer.get(key);
+        if (value instanceof String) {
+            return (String) value;
+        }
+        return super.getProperty(key);
+    }
+
+    @Override
+    public Object get(Object key) {
+        return layer.get(key);
+    }
+
+    @Override
+    public Object getOrDefault(Object key, Object defaultValue) {
+        Object value = get(key);
+        return value == null ? defaultValue : value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return layer.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return layer.containsValue(value);
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        return layer.containsValue(value);
+    }
+
+    @Override
+    public int size() {
+        return layer.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return layer.isEmpty();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Enumeration<Object> keys() {
+        return Collections.enumeration((Set<Object>) layer.keySet());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Enumeration<Object> elements() {
+        return Collections.enumeration((Collection<Object>) layer.values());
+    }
+
+    @Override
+    public Set<Object> keySet() {
+        return unmodifiableSet(layer.keySet());
+    }
+
+    @Override
+    public Collection<Object> values() {
+        return unmodifiableCollection(layer.values());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<Map.Entry<Object, Object>> entrySet() {
+        return unmodifiableSet((Set<Map.Entry<Object, Object>>) (Set<?>) layer.entrySet());
+    }
+
+    @Override
+    public synchronized Object put(Object key, Object value) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized void putAll(Map<?, ?> t) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized Object remove(Object key) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized boolean remove(Object key, Object value) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized void clear() {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized Object putIfAbsent(Object key, Object value) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized boolean replace(Object key, Object oldValue, Object newValue) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized Object replace(Object key, Object value) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized void replaceAll(BiFunction<? super Object, ? super Object, ?> function) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized Object computeIfAbsent(Object key, Function<? super Object, ?> mappingFunction) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized Object computeIfPresent(Object key,
+            BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized Object compute(Object key, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized Object merge(Object key, Object value,
+            BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super Object, ? super Object> action) {
+        ((Map<Object, Object>) layer).forEach(action);
+    }
+
+    @Override
+    public synchronized boolean equals(Object o) {
+        return o == this || o instanceof Map && layer.equals(o);
+    }
+
+    @Override
+    public synchronized int hashCode() {
+        return layer.hashCode();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return layer.toString();
+    }
+
+}
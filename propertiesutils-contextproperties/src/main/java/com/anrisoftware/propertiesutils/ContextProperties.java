@@ -16,6 +16,7 @@
 package com.anrisoftware.propertiesutils;
 
 import static java.lang.String.format;
+import static java.util.Collections.unmodifiableSet;
 import static org.apache.commons.lang3.StringUtils.startsWith;
 import static org.apache.commons.lang3.Validate.notNull;
 
@@ -30,11 +31,16 @@ import java.text.Format;
 import java.text.ParseException;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Properties;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
@@ -56,6 +62,11 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
  * Defines additional methods to return different types of properties, like
  * boolean, number, list.
  * </p>
+ * <p>
+ * The properties are safe to be read from multiple threads without locking.
+ * The properties and the replacements are stored in concurrent maps and only
+ * the modification of the properties is synchronized.
+ * </p>
  *
  * @author Erwin Mueller, erwin.mueller@deventm.org
  * @since 1.0
@@ -63,14 +74,36 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 @SuppressWarnings("serial")
 public class ContextProperties extends Properties {
 
-    private static final String REPLACEMENT_PATTERN = "\\$\\{%s\\}";
+    private static final String FROZEN_MESSAGE = "The properties of the context '%s' are frozen.";
+
+    private static final String NO_PROPERTY = new String();
+
+    private static final int MAXIMUM_TEMPLATES = 4096;
+
+    private static final int MAXIMUM_CONTEXT_KEYS = 4096;
 
     private final String context;
 
-    private final HashMap<String, Serializable> replacements;
+    private final Map<String, Serializable> replacements;
+
+    private final Map<String, ReplacementTemplate> templates;
+
+    private final Map<String, String> contextKeys;
 
     private final TypedProperties typedProperties;
 
+    private final AtomicLong version;
+
+    private final ContextProperties root;
+
+    private transient volatile NavigableSet<String> keyIndex;
+
+    private volatile boolean cacheProperties;
+
+    private transient volatile Map<String, String> resolvedProperties;
+
+    private boolean frozen;
+
     /**
      * Sets the context and the properties.
      *
@@ -104,7 +137,26 @@ public class ContextProperties extends Properties {
         super(parentProperties);
         this.typedProperties = new TypedProperties(this);
         this.context = context;
-        this.replacements = new HashMap<>();
+        this.replacements = new ConcurrentHashMap<>();
+        this.templates = new ConcurrentHashMap<>();
+        this.contextKeys = new ConcurrentHashMap<>();
+        this.version = new AtomicLong();
+        this.root = this;
+    }
+
+    /**
+     * Sets the sub-context view of the parent properties.
+     */
+    private ContextProperties(ContextProperties parent, String context) {
+        super(parent);
+        this.typedProperties = new TypedProperties(this);
+        this.context = context;
+        this.replacements = new ConcurrentHashMap<>();
+        this.templates = new ConcurrentHashMap<>();
+        this.contextKeys = new ConcurrentHashMap<>();
+        this.version = parent.version;
+        this.root = parent.root;
+        this.frozen = true;
     }
 
     /**
@@ -137,6 +189,7 @@ public class ContextProperties extends Properties {
             }
             this.replacements.put(key, replace);
         }
+        propertiesChanged();
         return this;
     }
 
@@ -156,6 +209,7 @@ public class ContextProperties extends Properties {
      */
     public ContextProperties withReplacement(String key, Serializable replace) {
         replacements.put(key, replace);
+        propertiesChanged();
         return this;
     }
 
@@ -172,9 +226,380 @@ public class ContextProperties extends Properties {
             String key = (String) names.nextElement();
             replacements.put(key, System.getProperty(key));
         }
+        propertiesChanged();
+        return this;
+    }
+
+    /**
+     * Caches the resolved properties.
+     * <p>
+     * The value of a property is resolved once, with the context prefixed to the
+     * key and all replacements applied, and returned from the cache on each
+     * subsequent read. The cache is cleared if a property or a replacement is
+     * set through this {@link ContextProperties}. Changes to the parent
+     * properties are not tracked, call {@link #invalidateCache()} after the
+     * parent properties were modified.
+     *
+     * @return this {@link ContextProperties}.
+     *
+     * @since 4.7.0
+     */
+    public ContextProperties withCachedProperties() {
+        this.cacheProperties = true;
+        propertiesChanged();
+        return this;
+    }
+
+    /**
+     * Caches the parsed values of the typed properties.
+     *
+     * @param maximumSize the maximum count of the cached values.
+     *
+     * @return this {@link ContextProperties}.
+     *
+     * @see TypedProperties#withCache(int)
+     *
+     * @since 4.7.0
+     */
+    public ContextProperties withTypedCache(int maximumSize) {
+        typedProperties.withCache(maximumSize);
+        return this;
+    }
+
+    /**
+     * Clears the cached resolved properties and the cached values of the
+     * property handles.
+     *
+     * @see #withCachedProperties()
+     * @see #handle(String, Class, Object)
+     *
+     * @since 4.7.0
+     */
+    public void invalidateCache() {
+        propertiesChanged();
+    }
+
+    /**
+     * Collapses the properties and the chain of the parent properties into one
+     * flat, immutable table.
+     * <p>
+     * The lookup of a property, also of a property that is only defined in the
+     * default properties, needs only one probe of the table. Each key keeps the
+     * value with the highest precedence in the chain. After the properties are
+     * frozen all methods that would modify the properties throw
+     * {@link UnsupportedOperationException}. The replacements can still be set.
+     *
+     * <pre>
+     * ContextProperties p = new ContextPropertiesFactory(context).withDefaultProperties(defaults)
+     *         .fromResource(resource).freeze();
+     * </pre>
+     *
+     * @return this {@link ContextProperties}.
+     *
+     * @since 4.7.0
+     */
+    public synchronized ContextProperties freeze() {
+        if (frozen) {
+            return this;
+        }
+        Map<String, String> properties = new HashMap<>();
+        for (String name : stringPropertyNames()) {
+            properties.put(name, super.getProperty(name));
+        }
+        this.defaults = new ImmutableProperties(properties);
+        super.clear();
+        this.frozen = true;
+        propertiesChanged();
         return this;
     }
 
+    /**
+     * Replaces the parent properties with a new snapshot. The snapshot must be
+     * completely loaded, it is published with a single write so readers see
+     * either the old or the new parent properties. If the properties are frozen
+     * the snapshot is collapsed into one immutable table first.
+     */
+    synchronized void replaceDefaults(Properties properties) {
+        if (frozen) {
+            Map<String, String> map = new HashMap<>();
+            for (String name : properties.stringPropertyNames()) {
+                map.put(name, properties.getProperty(name));
+            }
+            properties = new ImmutableProperties(map);
+        }
+        this.defaults = properties;
+        reindexKeys();
+        propertiesChanged();
+    }
+
+    /**
+     * Returns the parent properties.
+     */
+    Properties getDefaults() {
+        return defaults;
+    }
+
+    /**
+     * Returns if the properties are frozen.
+     *
+     * @return {@code true} if the properties are frozen.
+     *
+     * @see #freeze()
+     *
+     * @since 4.7.0
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new UnsupportedOperationException(format(FROZEN_MESSAGE, context));
+        }
+    }
+
+    private void propertiesChanged() {
+        version.incrementAndGet();
+        templates.clear();
+        if (cacheProperties) {
+            resolvedProperties = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * Returns the version of the properties. The version is incremented each time
+     * a property or a replacement is set through this {@link ContextProperties}
+     * or the cache is invalidated.
+     *
+     * @return the version.
+     *
+     * @since 4.7.0
+     */
+    long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Creates a handle to the property that caches the parsed value.
+     *
+     * @param key  the property key.
+     *
+     * @param type the {@link Class} of the type of the value, for example
+     *             {@link Integer} or {@link java.net.URL}.
+     *
+     * @return the {@link PropertyHandle}.
+     *
+     * @throws IllegalArgumentException if the type is not supported.
+     *
+     * @see #handle(String, Class, Object)
+     *
+     * @since 4.7.0
+     */
+    public <T> PropertyHandle<T> handle(String key, Class<T> type) {
+        return handle(key, type, null);
+    }
+
+    /**
+     * Creates a handle to the property that caches the parsed value.
+     * <p>
+     * The key is prefixed with the context and the converter for the type is
+     * selected once when the handle is created. The handle returns the cached
+     * value as long as the properties are not changed, so it can be read on a
+     * hot path without a look-up or parsing.
+     *
+     * <pre>
+     * PropertyHandle&lt;Integer&gt; maxConnections = p.handle("max.connections", Integer.class, 10);
+     * int max = maxConnections.get();
+     * </pre>
+     *
+     * @param key          the property key.
+     *
+     * @param type         the {@link Class} of the type of the value, for example
+     *                     {@link Integer} or {@link java.net.URL}.
+     *
+     * @param defaultValue the default value that is returned if the property is
+     *                     not set.
+     *
+     * @return the {@link PropertyHandle}.
+     *
+     * @throws IllegalArgumentException if the type is not supported.
+     *
+     * @since 4.7.0
+     */
+    public <T> PropertyHandle<T> handle(String key, Class<T> type, T defaultValue) {
+        notNull(type);
+        return handle(key, TypeConverters.getConverter(type), defaultValue);
+    }
+
+    /**
+     * Creates a handle to the property that caches the parsed value.
+     *
+     * @param key          the property key.
+     *
+     * @param stringToType the {@link StringToType} that parses the value.
+     *
+     * @param defaultValue the default value that is returned if the property is
+     *                     not set.
+     *
+     * @return the {@link PropertyHandle}.
+     *
+     * @see #handle(String, Class, Object)
+     *
+     * @since 4.7.0
+     */
+    public <T> PropertyHandle<T> handle(String key, StringToType<T> stringToType, T defaultValue) {
+        notNull(key);
+        notNull(stringToType);
+        return new PropertyHandle<>(this, qualifyKey(key), stringToType, defaultValue);
+    }
+
+    /**
+     * Creates an implementation of the configuration interface that returns the
+     * properties of this context.
+     * <p>
+     * Each method of the interface without parameters returns the property with
+     * the key set by the {@link PropertyKey} annotation or with the name of the
+     * bean property of the method. The value is converted to the return type of
+     * the method, supported are the types of
+     * {@link #handle(String, Class, Object)} and {@code List<String>}. The
+     * implementation of a default method is called if the property is not set.
+     *
+     * <pre>
+     * interface ServerConfig {
+     *
+     *     &#64;PropertyKey("max.connections")
+     *     int getMaxConnections();
+     *
+     *     default int getPort() {
+     *         return 8080;
+     *     }
+     * }
+     *
+     * ServerConfig config = p.bind(ServerConfig.class);
+     * </pre>
+     *
+     * @param type the {@link Class} of the interface.
+     *
+     * @return the implementation of the interface.
+     *
+     * @throws IllegalArgumentException if the type is not an interface or if a
+     *                                  method is not a property accessor.
+     *
+     * @since 4.7.0
+     */
+    public <T> T bind(Class<T> type) {
+        notNull(type);
+        return PropertiesBinder.bind(this, type);
+    }
+
+    /**
+     * Returns a read-only view of the properties of a sub-context.
+     * <p>
+     * The context of the view is {@code <context>.<name>}. The view does not
+     * copy the properties, each property is looked up in this properties with
+     * the replacements of this properties applied, so changes to this
+     * properties are seen in the view. The view cannot be modified.
+     *
+     * <pre>
+     * ContextProperties db = p.subContext("db");
+     * String url = db.getProperty("url"); // &lt;context&gt;.db.url
+     * </pre>
+     *
+     * @param name the name of the sub-context.
+     *
+     * @return the {@link ContextProperties} of the sub-context.
+     *
+     * @since 4.7.0
+     */
+    public ContextProperties subContext(String name) {
+        notNull(name);
+        return new ContextProperties(this, context + "." + name);
+    }
+
+    /**
+     * Returns the names of the properties in the context, without the context.
+     * <p>
+     * The names are looked up in a sorted index of all property names, so only
+     * the names in the context are enumerated. The index is created on the first
+     * call and is updated with each property that is set or removed.
+     *
+     * @return the sorted {@link Set} of the names.
+     *
+     * @since 4.7.0
+     */
+    public Set<String> contextPropertyNames() {
+        String prefix = context + ".";
+        Set<String> names = new LinkedHashSet<>();
+        for (String key : root.getKeyIndex().tailSet(prefix)) {
+            if (!key.startsWith(prefix)) {
+                break;
+            }
+            names.add(key.substring(prefix.length()));
+        }
+        return unmodifiableSet(names);
+    }
+
+    private NavigableSet<String> getKeyIndex() {
+        NavigableSet<String> index = keyIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = keyIndex;
+                if (index == null) {
+                    index = new ConcurrentSkipListSet<>(stringPropertyNames());
+                    keyIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Adds the key to the index of the property names if the index was created.
+     */
+    private void indexKey(Object key, Object value) {
+        NavigableSet<String> index = keyIndex;
+        if (index != null && key instanceof String && value instanceof String) {
+            index.add((String) key);
+        }
+    }
+
+    /**
+     * Removes the key from the index of the property names if the property is
+     * not defined in the parent properties.
+     */
+    private void unindexKey(Object key) {
+        NavigableSet<String> index = keyIndex;
+        if (index != null && key instanceof String && super.getProperty((String) key) == null) {
+            index.remove(key);
+        }
+    }
+
+    /**
+     * Updates the index of the property names after the parent properties were
+     * replaced. Only the names that are added or removed are changed in the
+     * index.
+     */
+    private void reindexKeys() {
+        NavigableSet<String> index = keyIndex;
+        if (index != null) {
+            Set<String> names = stringPropertyNames();
+            index.retainAll(names);
+            for (String name : names) {
+                if (!index.contains(name)) {
+                    index.add(name);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the property with the replacements applied. The key must already
+     * be prefixed with the context.
+     */
+    String getContextProperty(String contextKey) {
+        return applyReplacements(super.getProperty(contextKey));
+    }
+
     /**
      * Returns the context of this properties.
      *
@@ -188,46 +613,130 @@ public class ContextProperties extends Properties {
 
     @Override
     public String getProperty(String key) {
-        String value = super.getProperty(keyWithContext(key));
-        return applyReplacements(value);
+        if (!cacheProperties) {
+            return resolveProperty(key);
+        }
+        String value = getCachedProperty(key);
+        return value == NO_PROPERTY ? null : value;
     }
 
     @Override
     public String getProperty(String key, String defaultValue) {
-        String value = super.getProperty(keyWithContext(key), defaultValue);
-        return applyReplacements(value);
+        if (!cacheProperties) {
+            String value = lookupProperty(key);
+            return applyReplacements(value == null ? defaultValue : value);
+        }
+        String value = getCachedProperty(key);
+        return value == NO_PROPERTY ? applyReplacements(defaultValue) : value;
     }
 
-    private String applyReplacements(String value) {
+    private String getCachedProperty(String key) {
+        Map<String, String> cache = resolvedProperties;
+        if (cache == null) {
+            cache = new ConcurrentHashMap<>();
+            resolvedProperties = cache;
+        }
+        String value = cache.get(key);
         if (value == null) {
+            value = resolveProperty(key);
+            if (value == null) {
+                value = NO_PROPERTY;
+            }
+            cache.put(key, value);
+        }
+        return value;
+    }
+
+    private String resolveProperty(String key) {
+        return applyReplacements(lookupProperty(key));
+    }
+
+    private String applyReplacements(String value) {
+        if (value == null || replacements.isEmpty()
+                || !ReplacementTemplate.hasPlaceholders(value)) {
             return value;
         }
-        for (Map.Entry<String, Serializable> entry : replacements.entrySet()) {
-            String replace = Matcher.quoteReplacement(entry.getValue().toString());
-            String key = entry.getKey();
-            Pattern pattern = Pattern.compile(format(REPLACEMENT_PATTERN, key));
-            Matcher matcher = pattern.matcher(value);
-            if (matcher.find()) {
-                value = matcher.replaceAll(replace);
+        ReplacementTemplate template = templates.get(value);
+        if (template == null) {
+            template = ReplacementTemplate.compile(value);
+            if (templates.size() < MAXIMUM_TEMPLATES) {
+                templates.putIfAbsent(value, template);
             }
         }
-        return value;
+        return template.apply(replacements);
     }
 
     @Override
-    public synchronized Object get(Object key) {
+    public Object get(Object key) {
         return getProperty(String.valueOf(key));
     }
 
     @Override
     public synchronized Object put(Object key, Object value) {
-        key = keyWithContext(String.valueOf(key));
-        return super.put(key, value);
+        checkNotFrozen();
+        key = qualifyKey(String.valueOf(key));
+        Object old = super.put(key, value);
+        indexKey(key, value);
+        propertiesChanged();
+        return old;
+    }
+
+    @Override
+    public synchronized void putAll(Map<?, ?> t) {
+        checkNotFrozen();
+        super.putAll(t);
+        for (Map.Entry<?, ?> entry : t.entrySet()) {
+            indexKey(entry.getKey(), entry.getValue());
+        }
+        propertiesChanged();
+    }
+
+    @Override
+    public synchronized Object remove(Object key) {
+        checkNotFrozen();
+        Object old = super.remove(key);
+        unindexKey(key);
+        propertiesChanged();
+        return old;
+    }
+
+    @Override
+    public synchronized void clear() {
+        checkNotFrozen();
+        Set<Object> keys = keyIndex == null ? null : new HashSet<>(super.keySet());
+        super.clear();
+        if (keys != null) {
+            for (Object key : keys) {
+                unindexKey(key);
+            }
+        }
+        propertiesChanged();
+    }
+
+    /**
+     * Returns the property for the key with the context. The keys of existing
+     * properties are cached so that the look-up of a key does not need to create
+     * a new {@link String}. Missing keys are not cached and the cache is bounded.
+     */
+    private String lookupProperty(String key) {
+        if (key == null) {
+            return super.getProperty(qualifyKey(key));
+        }
+        String contextKey = contextKeys.get(key);
+        if (contextKey != null) {
+            return super.getProperty(contextKey);
+        }
+        contextKey = qualifyKey(key);
+        String value = super.getProperty(contextKey);
+        if (value != null && contextKeys.size() < MAXIMUM_CONTEXT_KEYS) {
+            contextKeys.putIfAbsent(key, contextKey);
+        }
+        return value;
     }
 
-    private String keyWithContext(String key) {
+    private String qualifyKey(String key) {
         if (!startsWith(key, context)) {
-            key = String.format("%s.%s", context, key);
+            key = context + "." + key;
         }
         return key;
     }
@@ -240,6 +749,22 @@ public class ContextProperties extends Properties {
         return typedProperties.getBooleanProperty(key, defaultValue);
     }
 
+    public boolean getBooleanProperty(String key, boolean defaultValue) {
+        return typedProperties.getBooleanProperty(key, defaultValue);
+    }
+
+    public int getIntProperty(String key, int defaultValue) {
+        return typedProperties.getIntProperty(key, defaultValue);
+    }
+
+    public long getLongProperty(String key, long defaultValue) {
+        return typedProperties.getLongProperty(key, defaultValue);
+    }
+
+    public double getDoubleProperty(String key, double defaultValue) {
+        return typedProperties.getDoubleProperty(key, defaultValue);
+    }
+
     public Number getNumberProperty(String key) {
         return typedProperties.getNumberProperty(key);
     }
@@ -343,8 +868,32 @@ public class ContextProperties extends Properties {
         return typedProperties.getListProperty(key, defaultValue, separatorChars);
     }
 
+    public int[] getIntArrayProperty(String key) {
+        return typedProperties.getIntArrayProperty(key);
+    }
+
+    public int[] getIntArrayProperty(String key, String separatorChars) {
+        return typedProperties.getIntArrayProperty(key, separatorChars);
+    }
+
+    public long[] getLongArrayProperty(String key) {
+        return typedProperties.getLongArrayProperty(key);
+    }
+
+    public long[] getLongArrayProperty(String key, String separatorChars) {
+        return typedProperties.getLongArrayProperty(key, separatorChars);
+    }
+
+    public double[] getDoubleArrayProperty(String key) {
+        return typedProperties.getDoubleArrayProperty(key);
+    }
+
+    public double[] getDoubleArrayProperty(String key, String separatorChars) {
+        return typedProperties.getDoubleArrayProperty(key, separatorChars);
+    }
+
     @Override
-    public synchronized boolean equals(Object obj) {
+    public boolean equals(Object obj) {
         if (obj == null) {
             return false;
         }
@@ -359,12 +908,12 @@ public class ContextProperties extends Properties {
     }
 
     @Override
-    public synchronized int hashCode() {
+    public int hashCode() {
         return new HashCodeBuilder().appendSuper(super.hashCode()).append(context).toHashCode();
     }
 
     @Override
-    public synchronized String toString() {
+    public String toString() {
         return new ToStringBuilder(this).append("context", context).appendSuper(super.toString()).toString();
     }
 }
@@ -16,20 +16,22 @@
 package com.anrisoftware.propertiesutils;
 
 import static java.lang.System.getProperties;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.util.Collections.emptyMap;
 import static org.apache.commons.lang3.Validate.notNull;
 
-import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 
 /**
@@ -49,6 +51,12 @@ public class ContextPropertiesFactory implements Serializable {
 
     private Properties parentProperties;
 
+    private boolean sharedResources;
+
+    private boolean liveReload;
+
+    private File snapshot;
+
     /**
      * Sets the specified context object.
      * 
@@ -75,7 +83,6 @@ public class ContextPropertiesFactory implements Serializable {
     public ContextPropertiesFactory(String context) {
         this.context = context;
         this.defaultProperties = new Properties();
-        this.parentProperties = new Properties();
     }
 
     /**
@@ -122,8 +129,11 @@ public class ContextPropertiesFactory implements Serializable {
      * @since 1.4
      */
     public ContextPropertiesFactory withDefaultProperties(URL resource) throws IOException {
-        defaultProperties = new Properties();
-        defaultProperties.load(resource.openStream());
+        Properties properties = new Properties();
+        try (InputStream stream = resource.openStream()) {
+            PropertiesParser.load(stream, ISO_8859_1, properties::put);
+        }
+        defaultProperties = properties;
         return this;
     }
 
@@ -152,6 +162,93 @@ public class ContextPropertiesFactory implements Serializable {
         return this;
     }
 
+    /**
+     * Shares the loaded resources in the process.
+     * <p>
+     * Each resource is loaded and parsed only once for each character set, also
+     * by concurrent or repeated calls of {@code fromResource} from different
+     * factories and contexts. The shared properties cannot be modified. The
+     * resource is loaded again if its modification stamp changed, that is the
+     * last modification time of a file or a JAR entry.
+     *
+     * <pre>
+     * ContextProperties p = new ContextPropertiesFactory(context).withSharedResources().fromResource(resource);
+     * </pre>
+     *
+     * @return this {@link ContextPropertiesFactory}.
+     *
+     * @since 4.7.0
+     */
+    public ContextPropertiesFactory withSharedResources() {
+        this.sharedResources = true;
+        return this;
+    }
+
+    /**
+     * Reloads the properties if the resource file is changed.
+     * <p>
+     * The properties that are loaded from a {@link File}, a file {@link URI} or
+     * a directory are watched with a {@link java.nio.file.WatchService}. On a
+     * change the file is loaded in a background thread and the new properties
+     * replace the old properties atomically. Readers are never blocked and never
+     * see a partly loaded file. If the file cannot be loaded the old properties
+     * are kept. The properties are watched until they are garbage collected.
+     *
+     * <pre>
+     * ContextProperties p = new ContextPropertiesFactory(context).withLiveReload().fromResource(file);
+     * </pre>
+     *
+     * @return this {@link ContextPropertiesFactory}.
+     *
+     * @since 4.7.0
+     */
+    public ContextPropertiesFactory withLiveReload() {
+        this.liveReload = true;
+        return this;
+    }
+
+    /**
+     * Loads the properties file from a binary snapshot.
+     * <p>
+     * On the first load the properties file is parsed and its properties are
+     * written to the snapshot file. Later loads memory map the snapshot and
+     * look up the properties directly in the snapshot, the values are decoded
+     * on the first look-up. The snapshot is written again if the length or the
+     * checksum of the content of the properties file changed. The snapshot can
+     * also be written at build time by loading the properties file once. The
+     * properties of the snapshot cannot be modified.
+     * <p>
+     * The snapshot is used for properties that are loaded from a {@link File}
+     * or a file {@link URI}.
+     *
+     * <pre>
+     * ContextProperties p = new ContextPropertiesFactory(context).withSnapshot(new File(cache, "app.snapshot"))
+     *         .fromResource(file);
+     * </pre>
+     *
+     * @param snapshot the snapshot {@link File}.
+     *
+     * @return this {@link ContextPropertiesFactory}.
+     *
+     * @since 4.7.0
+     */
+    public ContextPropertiesFactory withSnapshot(File snapshot) {
+        notNull(snapshot, "The snapshot file cannot be null.");
+        this.snapshot = snapshot;
+        return this;
+    }
+
+    /**
+     * Removes all resources that are shared in the process.
+     *
+     * @see #withSharedResources()
+     *
+     * @since 4.7.0
+     */
+    public static void clearSharedResources() {
+        SharedResources.clear();
+    }
+
     /**
      * Loads the properties from a resource with a default character set.
      * 
@@ -177,9 +274,12 @@ public class ContextPropertiesFactory implements Serializable {
      * @throws IOException if there was an error loading the resource.
      */
     public ContextProperties fromResource(URL url, Charset charset) throws IOException {
-        InputStream resource = new BufferedInputStream(url.openStream());
-        Properties properties = loadProperties(resource, charset);
-        return new ContextProperties(context, properties);
+        if (sharedResources) {
+            return new ContextProperties(context, loadSharedResource(url, charset));
+        }
+        try (InputStream resource = url.openStream()) {
+            return new ContextProperties(context, loadProperties(resource, charset));
+        }
     }
 
     /**
@@ -239,9 +339,190 @@ public class ContextPropertiesFactory implements Serializable {
      * @since 1.1
      */
     public ContextProperties fromResource(File file, Charset charset) throws IOException {
-        FileInputStream resource = new FileInputStream(file);
-        Properties properties = loadProperties(resource, charset);
-        return new ContextProperties(context, properties);
+        ContextProperties properties = new ContextProperties(context, loadFile(file, charset));
+        if (liveReload) {
+            ContextPropertiesFactory reload = copyFactory();
+            ResourceWatcher.watch(file.toPath(), properties, changed -> reload.loadFile(file, charset));
+        }
+        return properties;
+    }
+
+    private Properties loadFile(File file, Charset charset) throws IOException {
+        if (snapshot != null) {
+            return withParentProperties(
+                    PropertiesSnapshot.load(file.toPath(), charset, snapshot.toPath(), defaultProperties));
+        }
+        if (sharedResources) {
+            return loadSharedResource(file.toURI().toURL(), charset);
+        }
+        Properties resourceP = new Properties(defaultProperties);
+        PropertiesParser.load(file.toPath(), charset, resourceP::put);
+        return withParentProperties(resourceP);
+    }
+
+    /**
+     * Returns a copy of the factory for the reloading of a resource, so that
+     * later changes to this factory do not change the reloaded properties.
+     */
+    private ContextPropertiesFactory copyFactory() {
+        ContextPropertiesFactory factory = new ContextPropertiesFactory(context);
+        factory.defaultProperties = defaultProperties;
+        factory.parentProperties = parentProperties;
+        factory.sharedResources = sharedResources;
+        factory.snapshot = snapshot;
+        return factory;
+    }
+
+    /**
+     * Streams the properties of the context from a resource with a default
+     * character set.
+     *
+     * @param url      the resource {@link URL}.
+     *
+     * @param consumer the {@link EntryConsumer} that receives the properties.
+     *
+     * @throws IOException if there was an error loading the resource or the
+     *                     consumer threw an error.
+     *
+     * @see #stream(URL, Charset, Map, EntryConsumer)
+     *
+     * @since 4.7.0
+     */
+    public void stream(URL url, EntryConsumer consumer) throws IOException {
+        stream(url, DEFAULT_CHARSET, emptyMap(), consumer);
+    }
+
+    /**
+     * Streams the properties of the context from a resource with a specified
+     * character set.
+     *
+     * @param url      the resource {@link URL}.
+     *
+     * @param charset  the {@link Charset} of the resource.
+     *
+     * @param consumer the {@link EntryConsumer} that receives the properties.
+     *
+     * @throws IOException if there was an error loading the resource or the
+     *                     consumer threw an error.
+     *
+     * @see #stream(URL, Charset, Map, EntryConsumer)
+     *
+     * @since 4.7.0
+     */
+    public void stream(URL url, Charset charset, EntryConsumer consumer) throws IOException {
+        stream(url, charset, emptyMap(), consumer);
+    }
+
+    /**
+     * Streams the properties of the context from a resource with a specified
+     * character set.
+     * <p>
+     * The resource is parsed block by block and each property is passed to the
+     * consumer as soon as it is parsed, so the memory needed does not depend on
+     * the size of the resource. Only the properties with a key in the context
+     * are passed, the key is passed without the context. The replacements are
+     * applied to the values. A key that is contained more than once in the
+     * resource is passed for each occurrence, in the order of the resource. The
+     * default and the parent properties of the factory are not streamed.
+     *
+     * <pre>
+     * new ContextPropertiesFactory(context).stream(resource, UTF_8, System.getProperties(), (key, value) -&gt; {
+     *     writer.write(key + " = " + value);
+     * });
+     * </pre>
+     *
+     * @param url          the resource {@link URL}.
+     *
+     * @param charset      the {@link Charset} of the resource.
+     *
+     * @param replacements the {@link Map} that contains the replacements as
+     *                     {@code <key>: <value>}.
+     *
+     * @param consumer     the {@link EntryConsumer} that receives the
+     *                     properties.
+     *
+     * @throws IOException if there was an error loading the resource or the
+     *                     consumer threw an error.
+     *
+     * @since 4.7.0
+     */
+    public void stream(URL url, Charset charset, Map<?, ?> replacements, EntryConsumer consumer)
+            throws IOException {
+        notNull(consumer, "The entry consumer cannot be null.");
+        String prefix = context + ".";
+        Map<String, Serializable> replace = new HashMap<>();
+        for (Map.Entry<?, ?> entry : replacements.entrySet()) {
+            Object value = entry.getValue();
+            replace.put(entry.getKey().toString(), value instanceof Serializable ? (Serializable) value
+                    : value.toString());
+        }
+        try (InputStream stream = url.openStream()) {
+            PropertiesParser.stream(stream, charset, (key, value) -> {
+                if (!key.startsWith(prefix)) {
+                    return;
+                }
+                if (!replace.isEmpty() && ReplacementTemplate.hasPlaceholders(value)) {
+                    value = ReplacementTemplate.compile(value).apply(replace);
+                }
+                try {
+                    consumer.accept(key.substring(prefix.length()), value);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Loads the properties from all properties files in a directory with a
+     * default character set.
+     *
+     * @param directory the {@link Path} of the directory.
+     *
+     * @return the {@link ContextProperties}.
+     *
+     * @throws IOException if there was an error loading a file.
+     *
+     * @see #fromDirectory(Path, Charset)
+     *
+     * @since 4.7.0
+     */
+    public ContextProperties fromDirectory(Path directory) throws IOException {
+        return fromDirectory(directory, DEFAULT_CHARSET);
+    }
+
+    /**
+     * Loads the properties from all properties files in a directory with a
+     * specified character set.
+     * <p>
+     * All files with the suffix {@code .properties} are loaded in parallel and
+     * merged in the lexical order of the file names, so that a property in
+     * {@code 20-server.properties} overrides the same property in
+     * {@code 10-defaults.properties}. With {@link #withLiveReload()} only a
+     * changed file is loaded again and only its properties are merged again.
+     *
+     * @param directory the {@link Path} of the directory.
+     *
+     * @param charset   the {@link Charset} of the files.
+     *
+     * @return the {@link ContextProperties}.
+     *
+     * @throws IOException if there was an error loading a file.
+     *
+     * @since 4.7.0
+     */
+    public ContextProperties fromDirectory(Path directory, Charset charset) throws IOException {
+        DirectoryResource resource = DirectoryResource.load(directory, charset);
+        ContextProperties properties = new ContextProperties(context,
+                withDefaultAndParentProperties(resource.getProperties()));
+        if (liveReload) {
+            ContextPropertiesFactory reload = copyFactory();
+            ResourceWatcher.watchDirectory(directory, properties,
+                    changed -> reload.withDefaultAndParentProperties(resource.reload(changed)));
+        }
+        return properties;
     }
 
     /**
@@ -290,11 +571,36 @@ public class ContextPropertiesFactory implements Serializable {
 
     private Properties loadProperties(InputStream resource, Charset charset) throws IOException {
         Properties resourceP = new Properties(defaultProperties);
-        Reader reader = new InputStreamReader(resource, charset);
-        resourceP.load(reader);
-        Properties parentP = new Properties(resourceP);
-        parentP.putAll(parentProperties);
-        return parentP;
+        PropertiesParser.load(resource, charset, resourceP::put);
+        return withParentProperties(resourceP);
+    }
+
+    /**
+     * Returns the view of the parent properties over the resource properties.
+     * The parent properties are not copied.
+     */
+    private Properties withParentProperties(Properties resourceP) {
+        if (parentProperties == null) {
+            return resourceP;
+        }
+        return new ChainedProperties(parentProperties, resourceP);
+    }
+
+    /**
+     * Returns the properties over the shared resource.
+     */
+    private Properties loadSharedResource(URL url, Charset charset) throws IOException {
+        return withDefaultAndParentProperties(SharedResources.load(url, charset));
+    }
+
+    /**
+     * Returns the chain of the default, the resource and the parent properties
+     * over the immutable resource properties. The properties are chained as
+     * views, so that the resource properties are shared and the default and the
+     * parent properties are looked up live and not copied.
+     */
+    private Properties withDefaultAndParentProperties(Properties resourceP) {
+        return withParentProperties(new ChainedProperties(resourceP, defaultProperties));
     }
 
     /**
@@ -307,10 +613,7 @@ public class ContextPropertiesFactory implements Serializable {
      * @since 1.5
      */
     public ContextProperties fromDefaults() {
-        Properties resourceP = new Properties(defaultProperties);
-        Properties parentP = new Properties(resourceP);
-        parentP.putAll(parentProperties);
-        return new ContextProperties(context, parentP);
+        return new ContextProperties(context, withParentProperties(defaultProperties));
     }
 
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2012-2021 Erwin Müller <erwin.mueller@anrisoftware.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anrisoftware.propertiesutils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches the decoded data of binary properties within a budget of bytes.
+ * <p>
+ * The data is cached by the property key together with the property value and
+ * the codec it was decoded from. Cached data is only returned if the property
+ * value and the codec are still the same, so changes to the properties are
+ * picked up on the next read. If the cached data exceeds the budget the least
+ * recently used data is evicted first. Data that is larger than the budget is
+ * not cached.
+ *
+ * @author Erwin Müller, erwin.mueller@deventm.de
+ * @since 4.7.0
+ */
+final class DataCache {
+
+    private final long maximumBytes;
+
+    private final LinkedHashMap<String, Entry> entries;
+
+    private long size;
+
+    /**
+     * Sets the budget of the cached data.
+     *
+     * @param maximumBytes the maximum count of the cached bytes.
+     */
+    DataCache(long maximumBytes) {
+        this.maximumBytes = maximumBytes;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the cached data.
+     *
+     * @param key      the property key.
+     *
+     * @param property the property value.
+     *
+     * @param codec    the {@link ByteCodec} of the value.
+     *
+     * @return the cached data or {@code null} if the data is not cached or was
+     *         decoded from a different property value or with a different
+     *         codec.
+     */
+    synchronized byte[] get(String key, String property, ByteCodec codec) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.codec != codec || !entry.property.equals(property)) {
+            return null;
+        }
+        return entry.data;
+    }
+
+    /**
+     * Caches the data.
+     *
+     * @param key      the property key.
+     *
+     * @param property the property value.
+     *
+     * @param codec    the {@link ByteCodec} of the value.
+     *
+     * @param data     the data decoded from the property value.
+     */
+    synchronized void put(String key, String property, ByteCodec codec, byte[] data) {
+        Entry old = entries.remove(key);
+        if (old != null) {
+            size -= old.data.length;
+        }
+        if (data.length > maximumBytes) {
+            return;
+        }
+        entries.put(key, new Entry(property, codec, data));
+        size += data.length;
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (size > maximumBytes && it.hasNext()) {
+            size -= it.next().getValue().data.length;
+            it.remove();
+        }
+    }
+
+    /**
+     * Returns the count of the cached bytes.
+     */
+    synchronized long size() {
+        return size;
+    }
+
+    private static final class Entry {
+
+        private final String property;
+
+        private final ByteCodec codec;
+
+        private final byte[] data;
+
+        Entry(String property, ByteCodec codec, byte[] data) {
+            this.property = property;
+            this.codec = codec;
+            this.data = data;
+        }
+    }
+
+}
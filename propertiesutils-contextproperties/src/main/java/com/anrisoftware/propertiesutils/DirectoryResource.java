@@ -0,0 +1,201 @@
+/*
+ * Copyright 2012-2021 Erwin Müller <erwin.mueller@anrisoftware.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anrisoftware.propertiesutils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The properties of all {@code *.properties} files in a directory.
+ * <p>
+ * The files are loaded in parallel and merged in the lexical order of their
+ * names, a property of a later file overrides the same property of an earlier
+ * file. The properties of each file are kept, so if one file is changed only
+ * this file is loaded again and only its keys are merged again. The merged
+ * properties are returned as a read-only view. A reload merges the keys into a
+ * copy of the merged properties and returns a new view, so that readers of the
+ * old view never see a partly merged file.
+ *
+ * @author Erwin Müller, erwin.mueller@deventm.de
+ * @since 4.7.0
+ */
+final class DirectoryResource {
+
+    private static final String GLOB = "*.properties";
+
+    private static final String SUFFIX = ".properties";
+
+    /**
+     * Loads the properties files of the directory.
+     *
+     * @param directory the {@link Path} of the directory.
+     *
+     * @param charset   the {@link Charset} of the files.
+     *
+     * @return the {@link DirectoryResource}.
+     *
+     * @throws IOException if there was an error loading a file.
+     */
+    static DirectoryResource load(Path directory, Charset charset) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, GLOB)) {
+            for (Path file : stream) {
+                if (Files.isRegularFile(file)) {
+                    files.add(file);
+                }
+            }
+        }
+        NavigableMap<String, Map<String, String>> fragments = new TreeMap<>();
+        try {
+            files.parallelStream().map(file -> loadFragment(file, charset)).forEachOrdered(fragment -> {
+                fragments.put(fragment.name, fragment.properties);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return new DirectoryResource(charset, fragments);
+    }
+
+    /**
+     * Returns if the file is a properties file.
+     */
+    static boolean isPropertiesFile(Path file) {
+        return file.getFileName().toString().endsWith(SUFFIX);
+    }
+
+    private static Fragment loadFragment(Path file, Charset charset) {
+        Map<String, String> map = new HashMap<>();
+        try {
+            PropertiesParser.load(file, charset, map::put);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Fragment(file.getFileName().toString(), map);
+    }
+
+    private final Charset charset;
+
+    private final NavigableMap<String, Map<String, String>> fragments;
+
+    private Map<String, String> merged;
+
+    private volatile Properties view;
+
+    private DirectoryResource(Charset charset, NavigableMap<String, Map<String, String>> fragments) {
+        this.charset = charset;
+        this.fragments = fragments;
+        this.merged = new HashMap<>();
+        for (Map<String, String> properties : fragments.values()) {
+            merged.putAll(properties);
+        }
+        this.view = new ChainedProperties(merged, null);
+    }
+
+    /**
+     * Returns the view of the merged properties of all files.
+     */
+    Properties getProperties() {
+        return view;
+    }
+
+    /**
+     * Loads the changed file again and merges the keys of the file.
+     *
+     * @param file the {@link Path} of the changed file. If the file does not
+     *             exist anymore its properties are removed.
+     *
+     * @return the new view of the merged properties of all files.
+     *
+     * @throws IOException if there was an error loading the file.
+     */
+    synchronized Properties reload(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        Map<String, String> old = fragments.get(name);
+        Map<String, String> properties = null;
+        if (Files.isRegularFile(file)) {
+            try {
+                properties = loadFragment(file, charset).properties;
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        if (properties == null) {
+            fragments.remove(name);
+        } else {
+            fragments.put(name, properties);
+        }
+        Set<String> keys = new HashSet<>();
+        if (old != null) {
+            keys.addAll(old.keySet());
+        }
+        if (properties != null) {
+            keys.addAll(properties.keySet());
+        }
+        Map<String, String> map = new HashMap<>(merged);
+        for (String key : keys) {
+            String value = mergedValue(key);
+            if (value == null) {
+                map.remove(key);
+            } else {
+                map.put(key, value);
+            }
+        }
+        Properties p = new ChainedProperties(map, null);
+        this.merged = map;
+        this.view = p;
+        return p;
+    }
+
+    /**
+     * Returns the value of the file with the highest precedence that contains
+     * the key.
+     */
+    private String mergedValue(String key) {
+        for (Map<String, String> properties : fragments.descendingMap().values()) {
+            String value = properties.get(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static final class Fragment {
+
+        private final String name;
+
+        private final Map<String, String> properties;
+
+        Fragment(String name, Map<String, String> properties) {
+            this.name = name;
+            this.properties = properties;
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2012-2021 Erwin Müller <erwin.mueller@anrisoftware.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anrisoftware.propertiesutils;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parses durations with units, for example {@code 250ms}, {@code 5s} or
+ * {@code 1h 30m}, without creating intermediate strings.
+ * <p>
+ * A duration is a sequence of integer numbers each followed by a unit, the
+ * units are {@code d}, {@code h}, {@code m}, {@code s}, {@code ms},
+ * {@code us}, {@code µs} and {@code ns}. Whitespace is allowed between the
+ * numbers and the units and a leading {@code -} negates the duration. Values
+ * that start with {@code P} or {@code -P} are parsed in the ISO-8601 format of
+ * {@link Duration#parse(CharSequence)}.
+ *
+ * @author Erwin Müller, erwin.mueller@deventm.de
+ * @since 4.7.0
+ */
+final class DurationParser {
+
+    private static final String INVALID_MESSAGE = "Invalid duration";
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private DurationParser() {
+    }
+
+    /**
+     * Parses the duration.
+     *
+     * @throws DateTimeParseException if the text is not a duration.
+     */
+    static Duration parse(CharSequence s) {
+        int length = s.length();
+        int i = skipWhitespace(s, 0, length);
+        while (length > i && s.charAt(length - 1) <= ' ') {
+            length--;
+        }
+        boolean negative = i < length && s.charAt(i) == '-';
+        int start = negative ? i + 1 : i;
+        if (start < length && (s.charAt(start) == 'P' || s.charAt(start) == 'p')) {
+            return Duration.parse(s.subSequence(i, length));
+        }
+        i = start;
+        if (i == length) {
+            throw new DateTimeParseException(INVALID_MESSAGE, s, i);
+        }
+        long seconds = 0;
+        long nanos = 0;
+        try {
+            while (i < length) {
+                int begin = i;
+                long value = 0;
+                while (i < length && s.charAt(i) >= '0' && s.charAt(i) <= '9') {
+                    value = Math.addExact(Math.multiplyExact(value, 10), s.charAt(i) - '0');
+                    i++;
+                }
+                if (i == begin) {
+                    throw new DateTimeParseException(INVALID_MESSAGE, s, i);
+                }
+                i = skipWhitespace(s, i, length);
+                char c = i < length ? s.charAt(i) : 0;
+                char next = i + 1 < length ? s.charAt(i + 1) : 0;
+                if (c == 'd') {
+                    seconds = Math.addExact(seconds, Math.multiplyExact(value, 86400));
+                    i++;
+                } else if (c == 'h') {
+                    seconds = Math.addExact(seconds, Math.multiplyExact(value, 3600));
+                    i++;
+                } else if (c == 'm' && next == 's') {
+                    seconds = Math.addExact(seconds, value / 1000);
+                    nanos += value % 1000 * 1_000_000;
+                    i += 2;
+                } else if (c == 'm') {
+                    seconds = Math.addExact(seconds, Math.multiplyExact(value, 60));
+                    i++;
+                } else if (c == 's') {
+                    seconds = Math.addExact(seconds, value);
+                    i++;
+                } else if ((c == 'u' || c == 'µ') && next == 's') {
+                    seconds = Math.addExact(seconds, value / 1_000_000);
+                    nanos += value % 1_000_000 * 1000;
+                    i += 2;
+                } else if (c == 'n' && next == 's') {
+                    seconds = Math.addExact(seconds, value / NANOS_PER_SECOND);
+                    nanos += value % NANOS_PER_SECOND;
+                    i += 2;
+                } else {
+                    throw new DateTimeParseException(INVALID_MESSAGE, s, i);
+                }
+                if (nanos >= NANOS_PER_SECOND) {
+                    seconds = Math.addExact(seconds, nanos / NANOS_PER_SECOND);
+                    nanos %= NANOS_PER_SECOND;
+                }
+                i = skipWhitespace(s, i, length);
+            }
+            Duration duration = Duration.ofSeconds(seconds, nanos);
+            return negative ? duration.negated() : duration;
+        } catch (ArithmeticException e) {
+            throw new DateTimeParseException(INVALID_MESSAGE, s, 0, e);
+        }
+    }
+
+    private static int skipWhitespace(CharSequence s, int i, int length) {
+        while (i < length && s.charAt(i) <= ' ') {
+            i++;
+        }
+        return i;
+    }
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2012-2021 Erwin Müller <erwin.mueller@anrisoftware.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anrisoftware.propertiesutils;
+
+import java.io.IOException;
+
+/**
+ * Receives the properties that are streamed from a resource.
+ *
+ * @see ContextPropertiesFactory#stream(java.net.URL, EntryConsumer)
+ *
+ * @author Erwin Müller, erwin.mueller@deventm.de
+ * @since 4.7.0
+ */
+public interface EntryConsumer {
+
+    /**
+     * Receives a property.
+     *
+     * @param key   the key of the property without the context.
+     *
+     * @param value the value of the property with the replacements applied.
+     *
+     * @throws IOException if there was an error processing the property, the
+     *                     streaming of the resource is stopped.
+     */
+    void accept(String key, String value) throws IOException;
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2012-2021 Erwin Müller <erwin.mueller@anrisoftware.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anrisoftware.propertiesutils;
+
+import static java.util.Collections.unmodifiableCollection;
+import static java.util.Collections.unmodifiableSet;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Properties without defaults that cannot be modified after they are created.
+ * <p>
+ * All methods that would modify the properties throw
+ * {@link UnsupportedOperationException}.
+ *
+ * @author Erwin Müller, erwin.mueller@deventm.de
+ * @since 4.7.0
+ */
+@SuppressWarnings("serial")
+final class ImmutableProperties extends Properties {
+
+    private static final String IMMUTABLE_MESSAGE = "The properties are immutable.";
+
+    /**
+     * Sets the properties.
+     *
+     * @param properties the {@link Map} of the properties.
+     */
+    ImmutableProperties(Map<String, String> properties) {
+        super(null);
+        super.putAll(properties);
+    }
+
+    @Override
+    public synchronized Object put(Object key, Object value) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized void putAll(Map<?, ?> t) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized Object remove(Object key) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized boolean remove(Object key, Object value) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized void clear() {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized Object putIfAbsent(Object key, Object value) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized boolean replace(Object key, Object oldValue, Object newValue) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized Object replace(Object key, Object value) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized void replaceAll(BiFunction<? super Object, ? super Object, ?> function) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized Object computeIfAbsent(Object key, Function<? super Object, ?> mappingFunction) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized Object computeIfPresent(Object key,
+            BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized Object compute(Object key, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized Object merge(Object key, Object value,
+            BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public Set<Object> keySet() {
+        return unmodifiableSet(super.keySet());
+    }
+
+    @Override
+    public Collection<Object> values() {
+        return unmodifiableCollection(super.values());
+    }
+
+    @Override
+    public Set<Map.Entry<Object, Object>> entrySet() {
+        return unmodifiableSet(super.entrySet());
+    }
+
+}
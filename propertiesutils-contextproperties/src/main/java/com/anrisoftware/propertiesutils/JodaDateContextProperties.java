@@ -15,6 +15,8 @@
  */
 package com.anrisoftware.propertiesutils;
 
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
 import java.util.Properties;
 
 import org.joda.time.Duration;
@@ -122,4 +124,119 @@ public class JodaDateContextProperties extends ContextProperties {
         return dateProperties.getDurationProperty(key, formatter);
     }
 
+    /**
+     * Caches the parsed values of the typed and the date and time properties.
+     *
+     * @param maximumSize the maximum count of the cached values.
+     *
+     * @return this {@link JodaDateContextProperties}.
+     *
+     * @see TypedProperties#withCache(int)
+     *
+     * @since 4.7.0
+     */
+    @Override
+    public JodaDateContextProperties withTypedCache(int maximumSize) {
+        super.withTypedCache(maximumSize);
+        dateProperties.withCache(maximumSize);
+        return this;
+    }
+
+    /**
+     * Returns a {@code java.time} duration property.
+     *
+     * @param key the property key.
+     *
+     * @return the {@link java.time.Duration}.
+     *
+     * @see JodaDateProperties#getJavaDurationProperty(String)
+     *
+     * @since 4.7.0
+     */
+    public java.time.Duration getJavaDurationProperty(String key) {
+        return dateProperties.getJavaDurationProperty(key);
+    }
+
+    /**
+     * Returns a {@code java.time} duration property.
+     *
+     * @param key          the property key.
+     *
+     * @param defaultValue the default {@link java.time.Duration}.
+     *
+     * @return the {@link java.time.Duration}.
+     *
+     * @see JodaDateProperties#getJavaDurationProperty(String, java.time.Duration)
+     *
+     * @since 4.7.0
+     */
+    public java.time.Duration getJavaDurationProperty(String key, java.time.Duration defaultValue) {
+        return dateProperties.getJavaDurationProperty(key, defaultValue);
+    }
+
+    /**
+     * Returns a {@code java.time} period property.
+     *
+     * @param key the property key.
+     *
+     * @return the {@link java.time.Period}.
+     *
+     * @see JodaDateProperties#getJavaPeriodProperty(String)
+     *
+     * @since 4.7.0
+     */
+    public java.time.Period getJavaPeriodProperty(String key) {
+        return dateProperties.getJavaPeriodProperty(key);
+    }
+
+    /**
+     * Returns a {@code java.time} period property.
+     *
+     * @param key          the property key.
+     *
+     * @param defaultValue the default {@link java.time.Period}.
+     *
+     * @return the {@link java.time.Period}.
+     *
+     * @see JodaDateProperties#getJavaPeriodProperty(String, java.time.Period)
+     *
+     * @since 4.7.0
+     */
+    public java.time.Period getJavaPeriodProperty(String key, java.time.Period defaultValue) {
+        return dateProperties.getJavaPeriodProperty(key, defaultValue);
+    }
+
+    /**
+     * Returns an instant property.
+     *
+     * @param key the property key.
+     *
+     * @return the {@link Instant}.
+     *
+     * @see JodaDateProperties#getInstantProperty(String)
+     *
+     * @since 4.7.0
+     */
+    public Instant getInstantProperty(String key) {
+        return dateProperties.getInstantProperty(key);
+    }
+
+    /**
+     * Returns an instant property.
+     *
+     * @param key       the property key.
+     *
+     * @param formatter the {@link DateTimeFormatter} that parses the instant
+     *                  property.
+     *
+     * @return the {@link Instant}.
+     *
+     * @see JodaDateProperties#getInstantProperty(String, DateTimeFormatter)
+     *
+     * @since 4.7.0
+     */
+    public Instant getInstantProperty(String key, DateTimeFormatter formatter) {
+        return dateProperties.getInstantProperty(key, formatter);
+    }
+
 }
@@ -15,6 +15,9 @@
  */
 package com.anrisoftware.propertiesutils;
 
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.Map;
 import java.util.Properties;
 
@@ -25,6 +28,11 @@ import org.joda.time.format.PeriodFormatter;
 
 /**
  * Extends the utility to return typed properties for Joda-Time typed.
+ * <p>
+ * Also returns the {@link java.time.Duration}, {@link java.time.Period} and
+ * {@link Instant} properties of {@code java.time}. The parsed values are
+ * cached if the cache is enabled with {@link #withCache(int)}, the values are
+ * cached for each formatter.
  *
  * @author Erwin Müller, erwin.mueller@deventm.de
  * @since 4.5.1
@@ -61,7 +69,7 @@ public class JodaDateProperties extends TypedProperties {
         if (property == null) {
             return null;
         } else {
-            return new Period(property);
+            return parseCached(key, Period.class, null, property, Period::new);
         }
     }
 
@@ -80,7 +88,7 @@ public class JodaDateProperties extends TypedProperties {
         if (property == null) {
             return null;
         } else {
-            return formatter.parsePeriod(property);
+            return parseCached(key, formatter, null, property, formatter::parsePeriod);
         }
     }
 
@@ -97,7 +105,7 @@ public class JodaDateProperties extends TypedProperties {
         if (property == null) {
             return null;
         } else {
-            return new Period(property).toStandardDuration();
+            return parseCached(key, Duration.class, null, property, p -> new Period(p).toStandardDuration());
         }
     }
 
@@ -117,8 +125,134 @@ public class JodaDateProperties extends TypedProperties {
         if (property == null) {
             return null;
         } else {
-            return formatter.parsePeriod(property).toStandardDuration();
+            return getPeriodProperty(key, formatter).toStandardDuration();
         }
     }
 
+    /**
+     * Returns a {@code java.time} duration property. The duration is either in
+     * the format of {@link java.time.Duration#parse(CharSequence)}, for example
+     * {@code PT5S}, or numbers with units, for example {@code 250ms},
+     * {@code 5s} or {@code 1h 30m}. The units are {@code d}, {@code h},
+     * {@code m}, {@code s}, {@code ms}, {@code us} and {@code ns}.
+     *
+     * @param key the property key.
+     *
+     * @return the {@link java.time.Duration} or {@code null} if no property
+     *         with the key was found.
+     *
+     * @throws DateTimeParseException if the property is not a duration.
+     *
+     * @since 4.7.0
+     */
+    public java.time.Duration getJavaDurationProperty(String key) {
+        return getJavaDurationProperty(key, null);
+    }
+
+    /**
+     * Returns a {@code java.time} duration property.
+     *
+     * @param key          the property key.
+     *
+     * @param defaultValue the default {@link java.time.Duration}.
+     *
+     * @return the {@link java.time.Duration} or the default value if no
+     *         property with the key was found.
+     *
+     * @throws DateTimeParseException if the property is not a duration.
+     *
+     * @see #getJavaDurationProperty(String)
+     *
+     * @since 4.7.0
+     */
+    public java.time.Duration getJavaDurationProperty(String key, java.time.Duration defaultValue) {
+        String property = getProperty(key);
+        if (property == null) {
+            return defaultValue;
+        }
+        return parseCached(key, java.time.Duration.class, null, property, DurationParser::parse);
+    }
+
+    /**
+     * Returns a {@code java.time} period property using the format of
+     * {@link java.time.Period#parse(CharSequence)}, for example {@code P1Y2M3D}.
+     *
+     * @param key the property key.
+     *
+     * @return the {@link java.time.Period} or {@code null} if no property with
+     *         the key was found.
+     *
+     * @throws DateTimeParseException if the property is not a period.
+     *
+     * @since 4.7.0
+     */
+    public java.time.Period getJavaPeriodProperty(String key) {
+        return getJavaPeriodProperty(key, null);
+    }
+
+    /**
+     * Returns a {@code java.time} period property using the format of
+     * {@link java.time.Period#parse(CharSequence)}.
+     *
+     * @param key          the property key.
+     *
+     * @param defaultValue the default {@link java.time.Period}.
+     *
+     * @return the {@link java.time.Period} or the default value if no property
+     *         with the key was found.
+     *
+     * @throws DateTimeParseException if the property is not a period.
+     *
+     * @since 4.7.0
+     */
+    public java.time.Period getJavaPeriodProperty(String key, java.time.Period defaultValue) {
+        String property = getProperty(key);
+        if (property == null) {
+            return defaultValue;
+        }
+        return parseCached(key, java.time.Period.class, null, property, java.time.Period::parse);
+    }
+
+    /**
+     * Returns an instant property using the format of
+     * {@link DateTimeFormatter#ISO_INSTANT}, for example
+     * {@code 2021-03-01T10:15:30Z}.
+     *
+     * @param key the property key.
+     *
+     * @return the {@link Instant} or {@code null} if no property with the key
+     *         was found.
+     *
+     * @throws DateTimeParseException if the property is not an instant.
+     *
+     * @since 4.7.0
+     */
+    public Instant getInstantProperty(String key) {
+        return getInstantProperty(key, DateTimeFormatter.ISO_INSTANT);
+    }
+
+    /**
+     * Returns an instant property.
+     *
+     * @param key       the property key.
+     *
+     * @param formatter the {@link DateTimeFormatter} that parses the instant
+     *                  property. The formatter should be shared, the values are
+     *                  cached for each formatter.
+     *
+     * @return the {@link Instant} or {@code null} if no property with the key
+     *         was found.
+     *
+     * @throws DateTimeParseException if the property is not an instant.
+     *
+     * @since 4.7.0
+     */
+    public Instant getInstantProperty(String key, DateTimeFormatter formatter) {
+        String property = getProperty(key);
+        if (property == null) {
+            return null;
+        }
+        return parseCached(key, formatter, null, property, p -> formatter.parse(p, Instant::from));
+    }
+
 }
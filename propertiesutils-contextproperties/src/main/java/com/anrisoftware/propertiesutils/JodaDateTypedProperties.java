@@ -15,6 +15,8 @@
  */
 package com.anrisoftware.propertiesutils;
 
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
 import java.util.Map;
 import java.util.Properties;
 
@@ -79,6 +81,37 @@ public class JodaDateTypedProperties extends TypedProperties {
         return dateProperties.getDurationProperty(key, formatter);
     }
 
+    @Override
+    public JodaDateTypedProperties withCache(int maximumSize) {
+        super.withCache(maximumSize);
+        dateProperties.withCache(maximumSize);
+        return this;
+    }
+
+    public java.time.Duration getJavaDurationProperty(String key) {
+        return dateProperties.getJavaDurationProperty(key);
+    }
+
+    public java.time.Duration getJavaDurationProperty(String key, java.time.Duration defaultValue) {
+        return dateProperties.getJavaDurationProperty(key, defaultValue);
+    }
+
+    public java.time.Period getJavaPeriodProperty(String key) {
+        return dateProperties.getJavaPeriodProperty(key);
+    }
+
+    public java.time.Period getJavaPeriodProperty(String key, java.time.Period defaultValue) {
+        return dateProperties.getJavaPeriodProperty(key, defaultValue);
+    }
+
+    public Instant getInstantProperty(String key) {
+        return dateProperties.getInstantProperty(key);
+    }
+
+    public Instant getInstantProperty(String key, DateTimeFormatter formatter) {
+        return dateProperties.getInstantProperty(key, formatter);
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this).appendSuper(super.toString())
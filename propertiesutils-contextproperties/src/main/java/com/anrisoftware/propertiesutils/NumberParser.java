@@ -0,0 +1,187 @@
+/*
+ * Copyright 2012-2021 Erwin Müller <erwin.mueller@anrisoftware.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anrisoftware.propertiesutils;
+
+import java.math.BigDecimal;
+
+/**
+ * Parses numbers and lists of numbers from a range of characters without
+ * creating intermediate strings.
+ * <p>
+ * Leading and trailing whitespace is ignored. Integer numbers are parsed
+ * directly; a value with a fraction or an exponent is accepted as an integer
+ * if it represents an integer number in the range of the type, for example
+ * {@code 12.0}.
+ *
+ * @author Erwin Müller, erwin.mueller@deventm.de
+ * @since 4.7.0
+ */
+final class NumberParser {
+
+    private NumberParser() {
+    }
+
+    /**
+     * Parses an {@code int} number.
+     *
+     * @throws NumberFormatException if the characters are not an {@code int}
+     *                               number.
+     */
+    static int parseInt(CharSequence s, int begin, int end) {
+        long value = parseLong(s, begin, end);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException(
+                    "Value out of range for int: \"" + s.subSequence(begin, end) + "\"");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses a {@code long} number.
+     *
+     * @throws NumberFormatException if the characters are not a {@code long}
+     *                               number.
+     */
+    static long parseLong(CharSequence s, int begin, int end) {
+        while (begin < end && s.charAt(begin) <= ' ') {
+            begin++;
+        }
+        while (end > begin && s.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        try {
+            return Long.parseLong(s, begin, end, 10);
+        } catch (NumberFormatException e) {
+            return parseIntegral(s, begin, end, e);
+        }
+    }
+
+    private static long parseIntegral(CharSequence s, int begin, int end, NumberFormatException e) {
+        try {
+            return new BigDecimal(s.subSequence(begin, end).toString()).longValueExact();
+        } catch (NumberFormatException | ArithmeticException notIntegral) {
+            throw e;
+        }
+    }
+
+    /**
+     * Parses a {@code double} number.
+     *
+     * @throws NumberFormatException if the characters are not a {@code double}
+     *                               number.
+     */
+    static double parseDouble(CharSequence s, int begin, int end) {
+        if (begin == 0 && end == s.length() && s instanceof String) {
+            return Double.parseDouble((String) s);
+        }
+        return Double.parseDouble(s.subSequence(begin, end).toString());
+    }
+
+    /**
+     * Parses a list of {@code int} numbers.
+     *
+     * @param separatorChars the characters used as the delimiters, {@code null}
+     *                       splits on whitespace. Adjacent separators are treated
+     *                       as one separator.
+     *
+     * @throws NumberFormatException if an item is not an {@code int} number.
+     */
+    static int[] parseIntArray(String s, String separatorChars) {
+        int[] values = new int[countItems(s, separatorChars)];
+        int end = 0;
+        for (int i = 0; i < values.length; i++) {
+            int begin = itemBegin(s, end, separatorChars);
+            end = itemEnd(s, begin, separatorChars);
+            values[i] = parseInt(s, begin, end);
+        }
+        return values;
+    }
+
+    /**
+     * Parses a list of {@code long} numbers.
+     *
+     * @param separatorChars the characters used as the delimiters, {@code null}
+     *                       splits on whitespace. Adjacent separators are treated
+     *                       as one separator.
+     *
+     * @throws NumberFormatException if an item is not a {@code long} number.
+     */
+    static long[] parseLongArray(String s, String separatorChars) {
+        long[] values = new long[countItems(s, separatorChars)];
+        int end = 0;
+        for (int i = 0; i < values.length; i++) {
+            int begin = itemBegin(s, end, separatorChars);
+            end = itemEnd(s, begin, separatorChars);
+            values[i] = parseLong(s, begin, end);
+        }
+        return values;
+    }
+
+    /**
+     * Parses a list of {@code double} numbers.
+     *
+     * @param separatorChars the characters used as the delimiters, {@code null}
+     *                       splits on whitespace. Adjacent separators are treated
+     *                       as one separator.
+     *
+     * @throws NumberFormatException if an item is not a {@code double} number.
+     */
+    static double[] parseDoubleArray(String s, String separatorChars) {
+        double[] values = new double[countItems(s, separatorChars)];
+        int end = 0;
+        for (int i = 0; i < values.length; i++) {
+            int begin = itemBegin(s, end, separatorChars);
+            end = itemEnd(s, begin, separatorChars);
+            values[i] = parseDouble(s, begin, end);
+        }
+        return values;
+    }
+
+    private static int countItems(String s, String separatorChars) {
+        int count = 0;
+        int end = 0;
+        int length = s.length();
+        while (true) {
+            int begin = itemBegin(s, end, separatorChars);
+            if (begin == length) {
+                return count;
+            }
+            end = itemEnd(s, begin, separatorChars);
+            count++;
+        }
+    }
+
+    private static int itemBegin(String s, int i, String separatorChars) {
+        int length = s.length();
+        while (i < length && isSeparator(s.charAt(i), separatorChars)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int itemEnd(String s, int i, String separatorChars) {
+        int length = s.length();
+        while (i < length && !isSeparator(s.charAt(i), separatorChars)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isSeparator(char c, String separatorChars) {
+        return separatorChars == null ? Character.isWhitespace(c) : separatorChars.indexOf(c) != -1;
+    }
+
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2012-2021 Erwin Müller <erwin.mueller@anrisoftware.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anrisoftware.propertiesutils;
+
+import static java.lang.String.format;
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+import static org.apache.commons.lang3.StringUtils.split;
+import static org.apache.commons.lang3.StringUtils.uncapitalize;
+import static org.apache.commons.lang3.Validate.isTrue;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binds the properties to a configuration interface.
+ * <p>
+ * The accessors of the methods are created once when the interface is bound.
+ * Each method that returns a property has a {@link PropertyHandle} with the
+ * converter for the return type, so a call returns the cached value of the
+ * handle. Default methods of the interface are called if the property is not
+ * set, their return value is the default value of the property.
+ *
+ * @see ContextProperties#bind(Class)
+ *
+ * @author Erwin Müller, erwin.mueller@deventm.de
+ * @since 4.7.0
+ */
+final class PropertiesBinder {
+
+    private static final String NOT_INTERFACE_MESSAGE = "The type '%s' is not an interface.";
+
+    private static final String UNSUPPORTED_METHOD_MESSAGE = "The method '%s' is not a property accessor.";
+
+    private static final String DEFAULT_METHOD_MESSAGE = "Could not access the default method '%s'.";
+
+    private static final String MISSING_MESSAGE = "The property '%s' is not set.";
+
+    private PropertiesBinder() {
+    }
+
+    /**
+     * Creates the implementation of the configuration interface.
+     *
+     * @param properties the {@link ContextProperties}.
+     *
+     * @param type       the {@link Class} of the interface.
+     *
+     * @return the implementation of the interface.
+     *
+     * @throws IllegalArgumentException if the type is not an interface or if a
+     *                                  method is not a property accessor.
+     */
+    static <T> T bind(ContextProperties properties, Class<T> type) {
+        isTrue(type.isInterface(), NOT_INTERFACE_MESSAGE, type.getName());
+        Map<Method, Accessor> accessors = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            if (!Modifier.isStatic(method.getModifiers())) {
+                accessors.put(method, createAccessor(properties, method));
+            }
+        }
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                new Handler(type, properties, accessors));
+        return type.cast(proxy);
+    }
+
+    private static Accessor createAccessor(ContextProperties properties, Method method) {
+        MethodHandle defaultMethod = method.isDefault() ? defaultMethod(method) : null;
+        if (method.getParameterCount() > 0) {
+            isTrue(defaultMethod != null, UNSUPPORTED_METHOD_MESSAGE, method);
+            return (proxy, args) -> defaultMethod.bindTo(proxy).invokeWithArguments(args);
+        }
+        Class<?> type = method.getReturnType();
+        StringToType<?> stringToType = converter(method);
+        isTrue(stringToType != null, UNSUPPORTED_METHOD_MESSAGE, method);
+        PropertyHandle<?> handle = properties.handle(propertyKey(method), stringToType, null);
+        boolean primitive = type.isPrimitive();
+        return (proxy, args) -> {
+            Object value = handle.get();
+            if (value != null) {
+                return value;
+            }
+            if (defaultMethod != null) {
+                return defaultMethod.invoke(proxy);
+            }
+            if (primitive) {
+                throw new IllegalStateException(format(MISSING_MESSAGE, handle.getKey()));
+            }
+            return null;
+        };
+    }
+
+    private static StringToType<?> converter(Method method) {
+        Class<?> type = method.getReturnType();
+        if (TypeConverters.isSupported(type)) {
+            return TypeConverters.getConverter(type);
+        }
+        if (type == List.class && isStringList(method.getGenericReturnType())) {
+            return value -> unmodifiableList(asList(split(value, TypedProperties.DEFAULT_LIST_SEPARATOR_CHARS)));
+        }
+        return null;
+    }
+
+    private static boolean isStringList(Type type) {
+        if (!(type instanceof ParameterizedType)) {
+            return true;
+        }
+        Type item = ((ParameterizedType) type).getActualTypeArguments()[0];
+        return item == String.class || item == Object.class;
+    }
+
+    /**
+     * Returns the key of the property, either from the {@link PropertyKey}
+     * annotation or the name of the bean property of the method.
+     */
+    private static String propertyKey(Method method) {
+        PropertyKey key = method.getAnnotation(PropertyKey.class);
+        if (key != null) {
+            return key.value();
+        }
+        String name = method.getName();
+        if (name.length() > 3 && name.startsWith("get")) {
+            return uncapitalize(name.substring(3));
+        }
+        if (name.length() > 2 && name.startsWith("is") && method.getReturnType() == boolean.class) {
+            return uncapitalize(name.substring(2));
+        }
+        return name;
+    }
+
+    private static MethodHandle defaultMethod(Method method) {
+        Class<?> type = method.getDeclaringClass();
+        try {
+            return MethodHandles.privateLookupIn(type, MethodHandles.lookup()).unreflectSpecial(method, type);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException(format(DEFAULT_METHOD_MESSAGE, method), e);
+        }
+    }
+
+    /**
+     * Returns the value of a method of the bound interface.
+     */
+    private interface Accessor {
+
+        Object invoke(Object proxy, Object[] args) throws Throwable;
+    }
+
+    private static final class Handler implements InvocationHandler {
+
+        private final Class<?> type;
+
+        private final ContextProperties properties;
+
+        private final Map<Method, Accessor> accessors;
+
+        Handler(Class<?> type, ContextProperties properties, Map<Method, Accessor> accessors) {
+            this.type = type;
+            this.properties = properties;
+            this.accessors = accessors;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Accessor accessor = accessors.get(method);
+            if (accessor != null) {
+                return accessor.invoke(proxy, args);
+            }
+            switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return format("%s[%s]", type.getName(), properties.getContext());
+            default:
+                throw new UnsupportedOperationException(format(UNSUPPORTED_METHOD_MESSAGE, method));
+            }
+        }
+    }
+
+}
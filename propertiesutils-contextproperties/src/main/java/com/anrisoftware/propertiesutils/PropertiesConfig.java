@@ -0,0 +1,68 @@
+/*
+ * Copyright 2012-2021 Erwin Müller <erwin.mueller@anrisoftware.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anrisoftware.propertiesutils;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.CLASS;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a configuration interface for which the annotation processor of the
+ * module {@code propertiesutils-processor} generates the implementation.
+ * <p>
+ * The generated class is named after the interface with the suffix
+ * {@code Properties} and reads all values from the {@link ContextProperties}
+ * in its constructor. The keys of the methods are set as for
+ * {@link ContextProperties#bind(Class)}. If the resource is set, the
+ * processor checks at compile time that each key of an abstract method is
+ * defined in the resource and that the value can be converted to the return
+ * type of the method.
+ *
+ * <pre>
+ * &#64;PropertiesConfig(context = "com.example.server", resource = "com/example/server/server.properties")
+ * public interface ServerConfig {
+ *
+ *     &#64;PropertyKey("max.connections")
+ *     int getMaxConnections();
+ * }
+ *
+ * ServerConfig config = new ServerConfigProperties(p);
+ * </pre>
+ *
+ * @author Erwin Müller, erwin.mueller@deventm.de
+ * @since 4.7.0
+ */
+@Documented
+@Retention(CLASS)
+@Target(TYPE)
+public @interface PropertiesConfig {
+
+    /**
+     * Returns the context of the properties.
+     */
+    String context();
+
+    /**
+     * Returns the class path of the properties resource that is checked at
+     * compile time, for example {@code com/example/server/server.properties}.
+     * Without the resource the keys are not checked.
+     */
+    String resource() default "";
+
+}
@@ -0,0 +1,729 @@
+/*
+ * Copyright 2012-2021 Erwin Müller <erwin.mueller@anrisoftware.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anrisoftware.propertiesutils;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+
+/**
+ * Parses properties directly from the bytes of an ISO-8859-1 or UTF-8
+ * encoded resource.
+ * <p>
+ * The parser follows exactly the format of {@link Properties#load(Reader)}:
+ * comment and blank lines, continuation lines, the key and value separators,
+ * the escapes and the <code>&#92;uXXXX</code> Unicode escapes. The bytes are
+ * scanned directly, only the final key and value strings are allocated. The
+ * structural characters of the format are ASCII and are never part of a
+ * multi-byte UTF-8 sequence, so the lines can be split on the bytes before
+ * they are decoded. Files larger than 64 KiB are memory mapped.
+ * <p>
+ * Resources larger than 1 MiB are split into chunks that are parsed in
+ * parallel on the common {@link ForkJoinPool}. A chunk only ends after a line
+ * feed that ends a logical line, that is a line feed after an even number of
+ * backslashes, so that continuation lines are never split. The properties of
+ * the chunks are merged in the order of the chunks, so a later property
+ * overrides an earlier property like in {@link Properties#load(Reader)}.
+ *
+ * @author Erwin Müller, erwin.mueller@deventm.de
+ * @since 4.7.0
+ */
+final class PropertiesParser {
+
+    private static final String MALFORMED_MESSAGE = "Malformed \\uxxxx encoding.";
+
+    private static final long MAPPING_THRESHOLD = 64 * 1024;
+
+    private static final int PARALLEL_THRESHOLD = 1024 * 1024;
+
+    private static final int CHUNK_SIZE = 256 * 1024;
+
+    private static final int STREAM_BLOCK_SIZE = 64 * 1024;
+
+    /**
+     * Returns if the parser supports the character set. Other character sets
+     * are loaded with {@link Properties#load(Reader)}.
+     */
+    static boolean isSupported(Charset charset) {
+        return ISO_8859_1.equals(charset) || UTF_8.equals(charset);
+    }
+
+    /**
+     * Loads the properties from the file.
+     *
+     * @param file     the {@link Path} of the file.
+     *
+     * @param charset  the {@link Charset} of the file.
+     *
+     * @param consumer the {@link BiConsumer} that is called with the key and
+     *                 the value of each property, in the order of the file.
+     *
+     * @throws IOException if there was an error reading the file.
+     */
+    static void load(Path file, Charset charset, BiConsumer<String, String> consumer) throws IOException {
+        if (!isSupported(charset)) {
+            try (InputStream stream = Files.newInputStream(file)) {
+                loadReader(stream, charset, consumer);
+            }
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer buffer;
+            if (size > MAPPING_THRESHOLD && size <= Integer.MAX_VALUE) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            }
+            parse(buffer, charset, consumer);
+        }
+    }
+
+    /**
+     * Loads the properties from the stream.
+     *
+     * @param stream   the {@link InputStream}.
+     *
+     * @param charset  the {@link Charset} of the stream.
+     *
+     * @param consumer the {@link BiConsumer} that is called with the key and
+     *                 the value of each property, in the order of the stream.
+     *
+     * @throws IOException if there was an error reading the stream.
+     */
+    static void load(InputStream stream, Charset charset, BiConsumer<String, String> consumer) throws IOException {
+        if (!isSupported(charset)) {
+            loadReader(stream, charset, consumer);
+            return;
+        }
+        parse(ByteBuffer.wrap(stream.readAllBytes()), charset, consumer);
+    }
+
+    /**
+     * Parses the properties from the stream block by block without reading the
+     * whole stream into memory. Each block is parsed up to the last line feed
+     * that ends a logical line, the rest of the block is kept for the next
+     * block. The memory needed is the block size or the size of the longest
+     * logical line. Streams in other character sets than ISO-8859-1 and UTF-8
+     * are converted to UTF-8 while they are read.
+     *
+     * @param stream   the {@link InputStream}.
+     *
+     * @param charset  the {@link Charset} of the stream.
+     *
+     * @param consumer the {@link BiConsumer} that is called with the key and
+     *                 the value of each property, in the order of the stream.
+     *                 A key that is contained more than once is passed for each
+     *                 occurrence.
+     *
+     * @throws IOException if there was an error reading the stream.
+     */
+    static void stream(InputStream stream, Charset charset, BiConsumer<String, String> consumer) throws IOException {
+        stream(stream, charset, STREAM_BLOCK_SIZE, consumer);
+    }
+
+    static void stream(InputStream stream, Charset charset, int blockSize, BiConsumer<String, String> consumer)
+            throws IOException {
+        if (!isSupported(charset)) {
+            stream = new Utf8InputStream(new InputStreamReader(stream, charset));
+            charset = UTF_8;
+        }
+        PropertiesParser parser = new PropertiesParser(charset);
+        byte[] bytes = new byte[blockSize];
+        int length = 0;
+        while (true) {
+            int n = stream.read(bytes, length, bytes.length - length);
+            if (n == -1) {
+                parser.parse(ByteBuffer.wrap(bytes, 0, length), consumer);
+                return;
+            }
+            length += n;
+            if (length < bytes.length) {
+                continue;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            int end = findLastLineBoundary(buffer, 0, length);
+            if (end == -1) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+                continue;
+            }
+            parser.parse(buffer, 0, end, consumer);
+            System.arraycopy(bytes, end, bytes, 0, length - end);
+            length -= end;
+        }
+    }
+
+    private static void parse(ByteBuffer buffer, Charset charset, BiConsumer<String, String> consumer) {
+        if (buffer.remaining() > PARALLEL_THRESHOLD) {
+            parseParallel(buffer, charset, CHUNK_SIZE, consumer);
+        } else {
+            new PropertiesParser(charset).parse(buffer, consumer);
+        }
+    }
+
+    /**
+     * Parses the properties in chunks in parallel.
+     *
+     * @param buffer    the {@link ByteBuffer}.
+     *
+     * @param charset   the {@link Charset}, either ISO-8859-1 or UTF-8.
+     *
+     * @param chunkSize the minimum size of a chunk in bytes.
+     *
+     * @param consumer  the {@link BiConsumer} that is called with the key and
+     *                  the value of each property. The properties of each chunk
+     *                  are returned in the order of the chunks.
+     */
+    static void parseParallel(ByteBuffer buffer, Charset charset, int chunkSize,
+            BiConsumer<String, String> consumer) {
+        ParseTask task = new ParseTask(buffer, charset, chunkSize, buffer.position(), buffer.limit());
+        for (Map<String, String> chunk : ForkJoinPool.commonPool().invoke(task)) {
+            chunk.forEach(consumer);
+        }
+    }
+
+    /**
+     * Returns the index after the first line feed between the start and the end
+     * that ends a logical line.
+     *
+     * @return the index or -1 if there is no such line feed.
+     */
+    private static int findLineBoundary(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (isLineBoundary(buffer, i)) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index after the last line feed between the start and the end
+     * that ends a logical line.
+     *
+     * @return the index or -1 if there is no such line feed.
+     */
+    private static int findLastLineBoundary(ByteBuffer buffer, int start, int end) {
+        for (int i = end - 1; i >= start; i--) {
+            if (isLineBoundary(buffer, i)) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns if the byte is a line feed after an even number of backslashes.
+     */
+    private static boolean isLineBoundary(ByteBuffer buffer, int i) {
+        if (buffer.get(i) != '\n') {
+            return false;
+        }
+        int j = i - 1;
+        if (j >= 0 && buffer.get(j) == '\r') {
+            j--;
+        }
+        int backslashes = 0;
+        while (j >= 0 && buffer.get(j) == '\\') {
+            backslashes++;
+            j--;
+        }
+        return (backslashes & 1) == 0;
+    }
+
+    private static void loadReader(InputStream stream, Charset charset, BiConsumer<String, String> consumer)
+            throws IOException {
+        Properties properties = new Properties();
+        properties.load(new InputStreamReader(stream, charset));
+        for (String name : properties.stringPropertyNames()) {
+            consumer.accept(name, properties.getProperty(name));
+        }
+    }
+
+    private final boolean utf8;
+
+    private final CharsetDecoder decoder;
+
+    private ByteBuffer buffer;
+
+    private int off;
+
+    private int limit;
+
+    private byte[] lineBuf;
+
+    private char[] charBuf;
+
+    /**
+     * The start of each natural line in the logical line, the natural lines
+     * are decoded separately.
+     */
+    private int[] segments;
+
+    private int segmentsCount;
+
+    private final StringBuilder outBuffer;
+
+    /**
+     * Creates the parser for the character set.
+     *
+     * @param charset the {@link Charset}, either ISO-8859-1 or UTF-8.
+     */
+    PropertiesParser(Charset charset) {
+        this.utf8 = UTF_8.equals(charset);
+        this.decoder = utf8 ? UTF_8.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE) : null;
+        this.lineBuf = new byte[1024];
+        this.charBuf = new char[1024];
+        this.segments = new int[8];
+        this.outBuffer = new StringBuilder();
+    }
+
+    /**
+     * Parses the properties between the position and the limit of the buffer.
+     *
+     * @param buffer   the {@link ByteBuffer}.
+     *
+     * @param consumer the {@link BiConsumer} that is called with the key and
+     *                 the value of each property, in the order of the buffer.
+     *
+     * @throws IllegalArgumentException if the buffer contains a malformed
+     *                                  Unicode escape sequence.
+     */
+    void parse(ByteBuffer buffer, BiConsumer<String, String> consumer) {
+        parse(buffer, buffer.position(), buffer.limit(), consumer);
+    }
+
+    private void parse(ByteBuffer buffer, int start, int end, BiConsumer<String, String> consumer) {
+        this.buffer = buffer;
+        this.off = start;
+        this.limit = end;
+        int len;
+        while ((len = readLine()) >= 0) {
+            parseLine(decodeLine(len), consumer);
+        }
+        this.buffer = null;
+    }
+
+    /**
+     * Reads a logical line, skips all comment and blank lines and filters out
+     * the leading whitespace characters of a natural line. The same algorithm
+     * as in {@link Properties#load(Reader)} is used.
+     *
+     * @return the length of the line in {@link #lineBuf} or -1 at the end.
+     */
+    private int readLine() {
+        ByteBuffer buffer = this.buffer;
+        byte[] lineBuf = this.lineBuf;
+        int off = this.off;
+        int limit = this.limit;
+        int len = 0;
+        boolean skipWhiteSpace = true;
+        boolean appendedLineBegin = false;
+        boolean precedingBackslash = false;
+        byte c;
+        segmentsCount = 0;
+        while (true) {
+            if (off >= limit) {
+                this.off = off;
+                if (len == 0) {
+                    return -1;
+                }
+                return precedingBackslash ? len - 1 : len;
+            }
+            c = buffer.get(off++);
+            if (skipWhiteSpace) {
+                if (c == ' ' || c == '\t' || c == '\f') {
+                    continue;
+                }
+                if (!appendedLineBegin && (c == '\r' || c == '\n')) {
+                    continue;
+                }
+                skipWhiteSpace = false;
+                appendedLineBegin = false;
+            }
+            if (len == 0) {
+                if (c == '#' || c == '!') {
+                    // comment, consume the rest of the line
+                    while (true) {
+                        if (off >= limit) {
+                            this.off = off;
+                            return -1;
+                        }
+                        byte b = buffer.get(off++);
+                        if (b == '\r' || b == '\n') {
+                            break;
+                        }
+                    }
+                    skipWhiteSpace = true;
+                    continue;
+                }
+            }
+            if (c != '\n' && c != '\r') {
+                if (segmentsCount == 0 || segments[segmentsCount - 1] > len) {
+                    addSegment(len);
+                }
+                lineBuf[len++] = c;
+                if (len == lineBuf.length) {
+                    lineBuf = Arrays.copyOf(lineBuf, len * 2);
+                    this.lineBuf = lineBuf;
+                }
+                precedingBackslash = c == '\\' ? !precedingBackslash : false;
+            } else {
+                // reached EOL
+                if (len == 0) {
+                    skipWhiteSpace = true;
+                    continue;
+                }
+                if (off >= limit) {
+                    this.off = off;
+                    return precedingBackslash ? len - 1 : len;
+                }
+                if (precedingBackslash) {
+                    // backslash at EOL is not part of the line
+                    len -= 1;
+                    addSegment(Integer.MAX_VALUE);
+                    skipWhiteSpace = true;
+                    appendedLineBegin = true;
+                    precedingBackslash = false;
+                    if (c == '\r' && buffer.get(off) == '\n') {
+                        off++;
+                    }
+                } else {
+                    this.off = off;
+                    return len;
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks the start of a natural line. A pending mark of
+     * {@link Integer#MAX_VALUE} is replaced by the start when the first byte of
+     * the next natural line is appended.
+     */
+    private void addSegment(int start) {
+        if (segmentsCount > 0 && segments[segmentsCount - 1] == Integer.MAX_VALUE) {
+            segments[segmentsCount - 1] = start;
+            return;
+        }
+        if (segmentsCount == segments.length) {
+            segments = Arrays.copyOf(segments, segmentsCount * 2);
+        }
+        segments[segmentsCount++] = start;
+    }
+
+    /**
+     * Decodes the line into {@link #charBuf}.
+     *
+     * @return the length of the decoded line.
+     */
+    private int decodeLine(int len) {
+        if (charBuf.length < len) {
+            charBuf = new char[Math.max(len, charBuf.length * 2)];
+        }
+        byte[] lineBuf = this.lineBuf;
+        char[] charBuf = this.charBuf;
+        int i = 0;
+        if (utf8) {
+            while (i < len && lineBuf[i] >= 0) {
+                charBuf[i] = (char) lineBuf[i];
+                i++;
+            }
+            if (i < len) {
+                return decodeUtf8(len);
+            }
+        } else {
+            for (; i < len; i++) {
+                charBuf[i] = (char) (lineBuf[i] & 0xFF);
+            }
+        }
+        return len;
+    }
+
+    /**
+     * Decodes each natural line of the logical line separately, like a reader
+     * that decodes the stream before the lines are joined.
+     */
+    private int decodeUtf8(int len) {
+        ByteBuffer in = ByteBuffer.wrap(lineBuf);
+        CharBuffer out = CharBuffer.wrap(charBuf);
+        for (int s = 0; s < segmentsCount; s++) {
+            int start = segments[s];
+            int end = s + 1 < segmentsCount ? Math.min(segments[s + 1], len) : len;
+            if (start >= end) {
+                continue;
+            }
+            in.limit(end).position(start);
+            decoder.reset();
+            decoder.decode(in, out, true);
+            decoder.flush(out);
+        }
+        return out.position();
+    }
+
+    /**
+     * Splits the line into the key and the value. The same algorithm as in
+     * {@link Properties#load(Reader)} is used.
+     */
+    private void parseLine(int limit, BiConsumer<String, String> consumer) {
+        char[] lineBuf = this.charBuf;
+        int keyLen = 0;
+        int valueStart = limit;
+        boolean hasSep = false;
+        boolean precedingBackslash = false;
+        while (keyLen < limit) {
+            char c = lineBuf[keyLen];
+            if ((c == '=' || c == ':') && !precedingBackslash) {
+                valueStart = keyLen + 1;
+                hasSep = true;
+                break;
+            } else if ((c == ' ' || c == '\t' || c == '\f') && !precedingBackslash) {
+                valueStart = keyLen + 1;
+                break;
+            }
+            if (c == '\\') {
+                precedingBackslash = !precedingBackslash;
+            } else {
+                precedingBackslash = false;
+            }
+            keyLen++;
+        }
+        while (valueStart < limit) {
+            char c = lineBuf[valueStart];
+            if (c != ' ' && c != '\t' && c != '\f') {
+                if (!hasSep && (c == '=' || c == ':')) {
+                    hasSep = true;
+                } else {
+                    break;
+                }
+            }
+            valueStart++;
+        }
+        String key = loadConvert(lineBuf, 0, keyLen);
+        String value = loadConvert(lineBuf, valueStart, limit - valueStart);
+        consumer.accept(key, value);
+    }
+
+    /**
+     * Converts the escapes and the <code>&#92;uxxxx</code> Unicode escapes.
+     */
+    private String loadConvert(char[] in, int off, int len) {
+        char aChar;
+        int end = off + len;
+        int start = off;
+        while (off < end) {
+            aChar = in[off++];
+            if (aChar == '\\') {
+                break;
+            }
+        }
+        if (off == end) {
+            return new String(in, start, len);
+        }
+        StringBuilder out = this.outBuffer;
+        out.setLength(0);
+        off--;
+        out.append(in, start, off - start);
+        while (off < end) {
+            aChar = in[off++];
+            if (aChar == '\\') {
+                aChar = in[off++];
+                if (aChar == 'u') {
+                    if (off > end - 4) {
+                        throw new IllegalArgumentException(MALFORMED_MESSAGE);
+                    }
+                    int value = 0;
+                    for (int i = 0; i < 4; i++) {
+                        value = (value << 4) + hexDigit(in[off++]);
+                    }
+                    out.append((char) value);
+                } else {
+                    if (aChar == 't') {
+                        aChar = '\t';
+                    } else if (aChar == 'r') {
+                        aChar = '\r';
+                    } else if (aChar == 'n') {
+                        aChar = '\n';
+                    } else if (aChar == 'f') {
+                        aChar = '\f';
+                    }
+                    out.append(aChar);
+                }
+            } else {
+                out.append(aChar);
+            }
+        }
+        return out.toString();
+    }
+
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return 10 + c - 'a';
+        }
+        if (c >= 'A' && c <= 'F') {
+            return 10 + c - 'A';
+        }
+        throw new IllegalArgumentException(MALFORMED_MESSAGE);
+    }
+
+    /**
+     * Parses a part of the buffer, splits the part at a line boundary if it is
+     * larger than two chunks.
+     */
+    @SuppressWarnings("serial")
+    private static final class ParseTask extends RecursiveTask<List<Map<String, String>>> {
+
+        private final ByteBuffer buffer;
+
+        private final Charset charset;
+
+        private final int chunkSize;
+
+        private final int start;
+
+        private final int end;
+
+        ParseTask(ByteBuffer buffer, Charset charset, int chunkSize, int start, int end) {
+            this.buffer = buffer;
+            this.charset = charset;
+            this.chunkSize = chunkSize;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected List<Map<String, String>> compute() {
+            int split = -1;
+            if (end - start > 2 * chunkSize) {
+                split = findLineBoundary(buffer, start + (end - start) / 2, end - chunkSize);
+            }
+            if (split == -1) {
+                Map<String, String> chunk = new HashMap<>();
+                new PropertiesParser(charset).parse(buffer, start, end, chunk::put);
+                List<Map<String, String>> chunks = new ArrayList<>();
+                chunks.add(chunk);
+                return chunks;
+            }
+            ParseTask left = new ParseTask(buffer, charset, chunkSize, start, split);
+            ParseTask right = new ParseTask(buffer, charset, chunkSize, split, end);
+            left.fork();
+            List<Map<String, String>> rightChunks = right.compute();
+            List<Map<String, String>> chunks = left.join();
+            chunks.addAll(rightChunks);
+            return chunks;
+        }
+    }
+
+    /**
+     * Reads the characters of a reader as UTF-8 bytes.
+     */
+    private static final class Utf8InputStream extends InputStream {
+
+        private final Reader reader;
+
+        private final char[] chars;
+
+        private int charsLength;
+
+        private byte[] bytes;
+
+        private int bytesOff;
+
+        Utf8InputStream(Reader reader) {
+            this.reader = reader;
+            this.chars = new char[8192];
+            this.bytes = new byte[0];
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (bytesOff == bytes.length) {
+                if (!fill()) {
+                    return -1;
+                }
+            }
+            int n = Math.min(len, bytes.length - bytesOff);
+            System.arraycopy(bytes, bytesOff, b, off, n);
+            bytesOff += n;
+            return n;
+        }
+
+        /**
+         * Encodes the next characters, keeps a high surrogate at the end for the
+         * next characters.
+         */
+        private boolean fill() throws IOException {
+            int n = reader.read(chars, charsLength, chars.length - charsLength);
+            if (n == -1) {
+                if (charsLength == 0) {
+                    return false;
+                }
+                n = 0;
+            }
+            int length = charsLength + n;
+            int end = length;
+            if (n > 0 && Character.isHighSurrogate(chars[length - 1])) {
+                end--;
+            }
+            bytes = new String(chars, 0, end).getBytes(UTF_8);
+            bytesOff = 0;
+            System.arraycopy(chars, end, chars, 0, length - end);
+            charsLength = length - end;
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2012-2021 Erwin Müller <erwin.mueller@anrisoftware.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anrisoftware.propertiesutils;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot of a properties file.
+ * <p>
+ * The snapshot is written once from the parsed properties file and memory
+ * mapped on later loads, so that the properties file is not parsed again. The
+ * snapshot consists of:
+ * <ul>
+ * <li>the header with the magic number, the format version, the length and
+ * the CRC32 checksum of the content of the properties file and the name of the
+ * character set the file was parsed with;</li>
+ * <li>the key index with the offset and the length of the key and of the value
+ * of each property, sorted by the UTF-8 bytes of the key;</li>
+ * <li>the string table with the UTF-8 bytes of the keys and the values, equal
+ * values are stored only once.</li>
+ * </ul>
+ * The snapshot is written again if the length or the checksum of the
+ * properties file or the character set are different from the header. The
+ * checksum detects also changes that keep the length and the last modification
+ * time of the file.
+ *
+ * @see SnapshotProperties
+ *
+ * @author Erwin Müller, erwin.mueller@deventm.de
+ * @since 4.7.0
+ */
+final class PropertiesSnapshot {
+
+    static final int MAGIC = 0x50525053;
+
+    static final int VERSION = 2;
+
+    static final int INDEX_ENTRY_SIZE = 16;
+
+    private static final int CHECKSUM_BUFFER_SIZE = 64 * 1024;
+
+    private static final String TOO_LARGE_MESSAGE = "The snapshot of '%s' is larger than 2 GiB.";
+
+    private PropertiesSnapshot() {
+    }
+
+    /**
+     * Returns the properties of the file from the snapshot. If the snapshot
+     * does not exist or is outdated the properties file is parsed and the
+     * snapshot is written.
+     *
+     * @param file     the {@link Path} of the properties file.
+     *
+     * @param charset  the {@link Charset} of the properties file.
+     *
+     * @param snapshot the {@link Path} of the snapshot file.
+     *
+     * @param defaults the default {@link Properties}.
+     *
+     * @return the {@link Properties}.
+     *
+     * @throws IOException if there was an error loading the properties file or
+     *                     writing the snapshot.
+     */
+    static Properties load(Path file, Charset charset, Path snapshot, Properties defaults) throws IOException {
+        long length = Files.size(file);
+        long checksum = checksum(file);
+        Properties properties = map(snapshot, length, checksum, charset, defaults);
+        if (properties != null) {
+            return properties;
+        }
+        Map<String, String> map = new HashMap<>();
+        PropertiesParser.load(file, charset, map::put);
+        if (!write(snapshot, map, length, checksum, charset)) {
+            Properties p = new Properties(defaults);
+            p.putAll(map);
+            return p;
+        }
+        return map(snapshot, length, checksum, charset, defaults);
+    }
+
+    /**
+     * Returns the CRC32 checksum of the content of the file. The file is read
+     * and not mapped, so that a file that is truncated while it is read does not
+     * fail the process.
+     */
+    private static long checksum(Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CHECKSUM_BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                crc.update(buffer);
+                buffer.clear();
+            }
+        }
+        return crc.getValue();
+    }
+
+    private static Properties map(Path snapshot, long length, long checksum, Charset charset,
+            Properties defaults) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(snapshot, READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                return null;
+            }
+            buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        byte[] charsetName = charset.name().getBytes(US_ASCII);
+        int headerSize = 4 + 4 + 8 + 8 + 4 + charsetName.length + 4 + 4;
+        if (buffer.capacity() < headerSize || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                || buffer.getLong(8) != length || buffer.getLong(16) != checksum
+                || buffer.getInt(24) != charsetName.length) {
+            return null;
+        }
+        for (int i = 0; i < charsetName.length; i++) {
+            if (buffer.get(28 + i) != charsetName[i]) {
+                return null;
+            }
+        }
+        int count = buffer.getInt(28 + charsetName.length);
+        int stringsSize = buffer.getInt(32 + charsetName.length);
+        long stringsStart = headerSize + (long) count * INDEX_ENTRY_SIZE;
+        if (count < 0 || stringsSize < 0 || stringsStart + stringsSize != buffer.capacity()) {
+            return null;
+        }
+        return new SnapshotProperties(buffer, count, headerSize, (int) stringsStart, defaults);
+    }
+
+    /**
+     * Writes the snapshot to a temporary file and moves it to the snapshot
+     * file, so that concurrent loads never see a partly written snapshot.
+     *
+     * @return {@code false} if the properties cannot be stored in UTF-8.
+     */
+    private static boolean write(Path snapshot, Map<String, String> map, long length, long checksum,
+            Charset charset) throws IOException {
+        CharsetEncoder encoder = UTF_8.newEncoder();
+        int count = map.size();
+        byte[][] keys = new byte[count][];
+        String[] values = new String[count];
+        int i = 0;
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            if (!encoder.canEncode(entry.getKey()) || !encoder.canEncode(entry.getValue())) {
+                return false;
+            }
+            keys[i] = entry.getKey().getBytes(UTF_8);
+            values[i] = entry.getValue();
+            i++;
+        }
+        Integer[] order = new Integer[count];
+        for (i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(keys[a], keys[b]));
+        byte[] charsetName = charset.name().getBytes(US_ASCII);
+        int headerSize = 4 + 4 + 8 + 8 + 4 + charsetName.length + 4 + 4;
+        long stringsStart = headerSize + (long) count * INDEX_ENTRY_SIZE;
+        Map<String, byte[]> valueBytes = new HashMap<>();
+        long stringsSize = 0;
+        for (i = 0; i < count; i++) {
+            stringsSize += keys[i].length;
+            if (!valueBytes.containsKey(values[i])) {
+                byte[] bytes = values[i].getBytes(UTF_8);
+                valueBytes.put(values[i], bytes);
+                stringsSize += bytes.length;
+            }
+        }
+        if (stringsStart + stringsSize > Integer.MAX_VALUE) {
+            throw new IOException(format(TOO_LARGE_MESSAGE, snapshot));
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) (stringsStart + stringsSize));
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(length).putLong(checksum);
+        buffer.putInt(charsetName.length).put(charsetName).putInt(count).putInt((int) stringsSize);
+        ByteBuffer strings = buffer.duplicate();
+        strings.position((int) stringsStart);
+        Map<String, Integer> valueOffsets = new HashMap<>();
+        for (i = 0; i < count; i++) {
+            int index = order[i];
+            byte[] key = keys[index];
+            buffer.putInt(strings.position() - (int) stringsStart).putInt(key.length);
+            strings.put(key);
+            byte[] value = valueBytes.get(values[index]);
+            Integer offset = valueOffsets.get(values[index]);
+            if (offset == null) {
+                offset = strings.position() - (int) stringsStart;
+                valueOffsets.put(values[index], offset);
+                strings.put(value);
+            }
+            buffer.putInt(offset).putInt(value.length);
+        }
+        buffer.position(0);
+        Path directory = snapshot.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path tmp = Files.createTempFile(directory, snapshot.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            try {
+                Files.move(tmp, snapshot, ATOMIC_MOVE, REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, snapshot, REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return true;
+    }
+
+}
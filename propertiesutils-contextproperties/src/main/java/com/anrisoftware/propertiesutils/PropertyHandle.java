@@ -0,0 +1,133 @@
+/*
+ * Copyright 2012-2021 Erwin Müller <erwin.mueller@anrisoftware.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anrisoftware.propertiesutils;
+
+import static java.lang.String.format;
+
+import java.text.ParseException;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Handle to a property that caches the parsed value.
+ * <p>
+ * The key of the property is prefixed with the context and the converter is
+ * selected when the handle is created. The parsed value is cached together
+ * with the version of the properties. As long as the properties are not
+ * changed, {@link #get()} only compares the version and returns the cached
+ * value. If the properties were changed the property is looked up again and
+ * only parsed if its value is different.
+ * <p>
+ * The handle is safe to be used from multiple threads.
+ *
+ * @see ContextProperties#handle(String, Class, Object)
+ *
+ * @author Erwin Müller, erwin.mueller@deventm.de
+ * @since 4.7.0
+ */
+public final class PropertyHandle<T> {
+
+    private static final String PARSE_ERROR_MESSAGE = "Could not parse the property '%s' with the value '%s'.";
+
+    private final ContextProperties properties;
+
+    private final String key;
+
+    private final StringToType<T> stringToType;
+
+    private final T defaultValue;
+
+    private volatile Value<T> value;
+
+    PropertyHandle(ContextProperties properties, String key, StringToType<T> stringToType, T defaultValue) {
+        this.properties = properties;
+        this.key = key;
+        this.stringToType = stringToType;
+        this.defaultValue = defaultValue;
+    }
+
+    /**
+     * Returns the key of the property with the context.
+     *
+     * @return the key.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the parsed value of the property.
+     *
+     * @return the value or the default value if the property is not set.
+     *
+     * @throws IllegalArgumentException if the value could not be parsed.
+     */
+    public T get() {
+        long version = properties.getVersion();
+        Value<T> v = value;
+        if (v != null && v.version == version) {
+            return v.value;
+        }
+        return reload(version, v);
+    }
+
+    private T reload(long version, Value<T> old) {
+        String property = properties.getContextProperty(key);
+        T parsed;
+        if (property == null) {
+            parsed = defaultValue;
+        } else if (old != null && property.equals(old.property)) {
+            parsed = old.value;
+        } else {
+            parsed = parse(property);
+        }
+        this.value = new Value<>(version, property, parsed);
+        return parsed;
+    }
+
+    private T parse(String property) {
+        try {
+            return stringToType.stringToType(property);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException(format(PARSE_ERROR_MESSAGE, key, property), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this).append("key", key).toString();
+    }
+
+    /**
+     * The parsed value together with the version of the properties and the
+     * property value it was parsed from.
+     */
+    private static final class Value<T> {
+
+        private final long version;
+
+        private final String property;
+
+        private final T value;
+
+        Value(long version, String property, T value) {
+            this.version = version;
+            this.property = property;
+            this.value = value;
+        }
+    }
+
+}
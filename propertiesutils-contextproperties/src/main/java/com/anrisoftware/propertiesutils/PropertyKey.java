@@ -0,0 +1,48 @@
+/*
+ * Copyright 2012-2021 Erwin Müller <erwin.mueller@anrisoftware.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anrisoftware.propertiesutils;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Sets the key of the property that is returned by the method of a bound
+ * configuration interface.
+ * <p>
+ * Without the annotation the key is the name of the bean property of the
+ * method, for example {@code maxConnections} for the method
+ * {@code getMaxConnections()}.
+ *
+ * @see ContextProperties#bind(Class)
+ *
+ * @author Erwin Müller, erwin.mueller@deventm.de
+ * @since 4.7.0
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(METHOD)
+public @interface PropertyKey {
+
+    /**
+     * Returns the key of the property, without or with the context.
+     */
+    String value();
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2012-2021 Erwin Müller <erwin.mueller@anrisoftware.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anrisoftware.propertiesutils;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Property value that is parsed into literal and <code>${key}</code>
+ * placeholder segments.
+ * <p>
+ * The value is parsed once and the placeholders are resolved with one look-up
+ * in the replacements map each. Placeholders without a replacement are left
+ * as they are.
+ *
+ * @author Erwin Müller, erwin.mueller@deventm.de
+ * @since 4.7.0
+ */
+@SuppressWarnings("serial")
+final class ReplacementTemplate implements Serializable {
+
+    private static final String PLACEHOLDER_BEGIN = "${";
+
+    private static final char PLACEHOLDER_END = '}';
+
+    private static final String[] NO_NAMES = new String[0];
+
+    private static final int[] NO_BOUNDS = new int[0];
+
+    /**
+     * Returns if the value contains a placeholder.
+     *
+     * @param value the {@link String} value.
+     *
+     * @return {@code true} if the value contains the placeholder begin.
+     */
+    static boolean hasPlaceholders(String value) {
+        return value.indexOf(PLACEHOLDER_BEGIN) != -1;
+    }
+
+    /**
+     * Parses the value into the literal and placeholder segments.
+     *
+     * @param value the {@link String} value.
+     *
+     * @return the {@link ReplacementTemplate}.
+     */
+    static ReplacementTemplate compile(String value) {
+        int begin = value.indexOf(PLACEHOLDER_BEGIN);
+        if (begin == -1) {
+            return new ReplacementTemplate(value, NO_NAMES, NO_BOUNDS);
+        }
+        List<String> names = new ArrayList<>();
+        List<Integer> bounds = new ArrayList<>();
+        while (begin != -1) {
+            int nameBegin = begin + PLACEHOLDER_BEGIN.length();
+            int end = value.indexOf(PLACEHOLDER_END, nameBegin);
+            if (end == -1) {
+                break;
+            }
+            names.add(value.substring(nameBegin, end));
+            bounds.add(begin);
+            bounds.add(end + 1);
+            begin = value.indexOf(PLACEHOLDER_BEGIN, end + 1);
+        }
+        int[] b = new int[bounds.size()];
+        for (int i = 0; i < b.length; i++) {
+            b[i] = bounds.get(i);
+        }
+        return new ReplacementTemplate(value, names.toArray(NO_NAMES), b);
+    }
+
+    private final String value;
+
+    private final String[] names;
+
+    /**
+     * The start (inclusive) and the end (exclusive) index of each placeholder.
+     */
+    private final int[] bounds;
+
+    private ReplacementTemplate(String value, String[] names, int[] bounds) {
+        this.value = value;
+        this.names = names;
+        this.bounds = bounds;
+    }
+
+    /**
+     * Replaces the placeholders with the replacements.
+     *
+     * @param replacements the {@link Map} of the replacements as
+     *                     {@code <key>: <value>}.
+     *
+     * @return the value with the placeholders replaced.
+     */
+    String apply(Map<String, ? extends Serializable> replacements) {
+        if (names.length == 0) {
+            return value;
+        }
+        StringBuilder builder = null;
+        int last = 0;
+        for (int i = 0; i < names.length; i++) {
+            Serializable replace = replacements.get(names[i]);
+            if (replace == null) {
+                continue;
+            }
+            if (builder == null) {
+                builder = new StringBuilder(value.length() + 16);
+            }
+            int begin = bounds[i * 2];
+            builder.append(value, last, begin);
+            builder.append(replace.toString());
+            last = bounds[i * 2 + 1];
+        }
+        if (builder == null) {
+            return value;
+        }
+        builder.append(value, last, value.length());
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2012-2021 Erwin Müller <erwin.mueller@anrisoftware.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anrisoftware.propertiesutils;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Watches the files of the context properties and reloads the properties if a
+ * file is changed.
+ * <p>
+ * Either a single file or all properties files of a directory are watched.
+ * <p>
+ * The files are watched with one {@link WatchService} and one daemon thread
+ * for the process. On a change the properties are loaded in the watcher
+ * thread and the new snapshot replaces the parent properties of the
+ * {@link ContextProperties} with a single write, so readers see either the
+ * old or the new properties and are never blocked. If the loading fails the
+ * old snapshot is kept. The context properties are only weakly referenced and
+ * are not watched anymore after they are garbage collected.
+ *
+ * @author Erwin Müller, erwin.mueller@deventm.de
+ * @since 4.7.0
+ */
+final class ResourceWatcher {
+
+    /**
+     * Loads the new snapshot of the properties after the file was changed.
+     */
+    interface Loader {
+
+        Properties load(Path file) throws IOException;
+    }
+
+    private static final int MAXIMUM_RETRIES = 5;
+
+    private static final Object LOCK = new Object();
+
+    private static WatchService watchService;
+
+    private static final Map<Path, WatchKey> DIRECTORIES = new HashMap<>();
+
+    private static final Map<Path, List<Watch>> WATCHES = new HashMap<>();
+
+    private ResourceWatcher() {
+    }
+
+    /**
+     * Watches the file and reloads the properties if the file is changed.
+     *
+     * @param file       the {@link Path} of the file.
+     *
+     * @param properties the {@link ContextProperties} that are reloaded.
+     *
+     * @param loader     the {@link Loader} that loads the new parent properties.
+     *
+     * @throws IOException if the directory of the file cannot be watched.
+     */
+    static void watch(Path file, ContextProperties properties, Loader loader) throws IOException {
+        file = file.toAbsolutePath().normalize();
+        watch(file.getParent(), new Watch(file, properties, loader));
+    }
+
+    /**
+     * Watches the properties files of the directory and reloads the properties
+     * if a file is created, changed or deleted.
+     *
+     * @param directory  the {@link Path} of the directory.
+     *
+     * @param properties the {@link ContextProperties} that are reloaded.
+     *
+     * @param loader     the {@link Loader} that loads the new parent properties
+     *                   for the changed file.
+     *
+     * @throws IOException if the directory cannot be watched.
+     */
+    static void watchDirectory(Path directory, ContextProperties properties, Loader loader) throws IOException {
+        watch(directory.toAbsolutePath().normalize(), new Watch(null, properties, loader));
+    }
+
+    private static void watch(Path directory, Watch watch) throws IOException {
+        synchronized (LOCK) {
+            if (watchService == null) {
+                watchService = FileSystems.getDefault().newWatchService();
+                startThread(watchService);
+            }
+            if (!DIRECTORIES.containsKey(directory)) {
+                DIRECTORIES.put(directory,
+                        directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE));
+            }
+            WATCHES.computeIfAbsent(directory, d -> new ArrayList<>()).add(watch);
+        }
+    }
+
+    private static void startThread(WatchService service) {
+        Thread thread = new Thread(() -> watchFiles(service), "context-properties-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static void watchFiles(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                Path directory = (Path) key.watchable();
+                Set<Path> changed = new LinkedHashSet<>();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == OVERFLOW) {
+                        changed.addAll(propertiesFiles(directory));
+                    } else {
+                        changed.add(directory.resolve((Path) event.context()));
+                    }
+                }
+                key.reset();
+                for (Path file : changed) {
+                    reload(directory, file);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // the watcher is stopped
+        }
+    }
+
+    private static List<Path> propertiesFiles(Path directory) {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                if (DirectoryResource.isPropertiesFile(file)) {
+                    files.add(file);
+                }
+            }
+        } catch (IOException e) {
+            // the directory cannot be read
+        }
+        return files;
+    }
+
+    private static void reload(Path directory, Path file) {
+        List<Watch> watches = new ArrayList<>();
+        synchronized (LOCK) {
+            List<Watch> list = WATCHES.get(directory);
+            if (list == null) {
+                return;
+            }
+            list.removeIf(watch -> watch.properties.get() == null);
+            if (list.isEmpty()) {
+                WATCHES.remove(directory);
+                DIRECTORIES.remove(directory).cancel();
+                return;
+            }
+            for (Watch watch : list) {
+                if (watch.matches(file)) {
+                    watches.add(watch);
+                }
+            }
+        }
+        for (Watch watch : watches) {
+            ContextProperties properties = watch.properties.get();
+            if (properties == null) {
+                continue;
+            }
+            try {
+                properties.replaceDefaults(load(file, watch.loader));
+            } catch (Throwable e) {
+                // keep the old snapshot until the next change, also on an error
+                // of a mapped file that is truncated while it is parsed, so that
+                // the watcher thread keeps running for the other files
+            }
+        }
+    }
+
+    /**
+     * Loads the properties and loads them again if the file was modified while
+     * it was loaded.
+     */
+    private static Properties load(Path file, Loader loader) throws IOException {
+        if (!Files.exists(file)) {
+            return loader.load(file);
+        }
+        for (int i = 0;; i++) {
+            long stamp = modificationStamp(file);
+            Properties properties = loader.load(file);
+            if (stamp == modificationStamp(file) || i == MAXIMUM_RETRIES) {
+                return properties;
+            }
+        }
+    }
+
+    private static long modificationStamp(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return attributes.lastModifiedTime().toMillis() * 31 + attributes.size();
+    }
+
+    private static final class Watch {
+
+        private final Path file;
+
+        private final WeakReference<ContextProperties> properties;
+
+        private final Loader loader;
+
+        /**
+         * @param file the watched file or {@code null} to watch all properties
+         *             files of the directory.
+         */
+        Watch(Path file, ContextProperties properties, Loader loader) {
+            this.file = file;
+            this.properties = new WeakReference<>(properties);
+            this.loader = loader;
+        }
+
+        boolean matches(Path changed) {
+            return file == null ? DirectoryResource.isPropertiesFile(changed) : file.equals(changed);
+        }
+    }
+
+}
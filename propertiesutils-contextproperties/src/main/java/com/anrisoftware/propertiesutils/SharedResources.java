@@ -0,0 +1,143 @@
+/*
+ * Copyright 2012-2021 Erwin Müller <erwin.mueller@anrisoftware.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anrisoftware.propertiesutils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the loaded properties resources that is shared in the process.
+ * <p>
+ * A resource is loaded once for each URL and character set and the loaded
+ * properties are shared as {@link ImmutableProperties}. Concurrent loads of
+ * the same resource wait for the first load. The registry compares the
+ * modification stamp of the resource on each look-up and loads the resource
+ * again if it was modified. The stamp of a file is its last modification time
+ * and its length, the stamp of a JAR entry is the last modification time of
+ * the entry. Resources with other protocols are loaded only once.
+ *
+ * @author Erwin Müller, erwin.mueller@deventm.de
+ * @since 4.7.0
+ */
+final class SharedResources {
+
+    private static final Map<String, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+    private SharedResources() {
+    }
+
+    /**
+     * Returns the properties of the resource.
+     *
+     * @param url     the resource {@link URL}.
+     *
+     * @param charset the {@link Charset} of the resource.
+     *
+     * @return the {@link ImmutableProperties}.
+     *
+     * @throws IOException if there was an error loading the resource.
+     */
+    static Properties load(URL url, Charset charset) throws IOException {
+        String key = url.toExternalForm() + '\0' + charset.name();
+        long stamp = modificationStamp(url);
+        Entry created = new Entry(stamp);
+        Entry entry = ENTRIES.compute(key, (k, old) -> old != null && old.stamp == stamp ? old : created);
+        if (entry == created) {
+            try {
+                created.future.complete(loadResource(url, charset));
+            } catch (IOException | RuntimeException e) {
+                ENTRIES.remove(key, created);
+                created.future.completeExceptionally(e);
+            }
+        }
+        return entry.await();
+    }
+
+    /**
+     * Removes all loaded resources.
+     */
+    static void clear() {
+        ENTRIES.clear();
+    }
+
+    private static Properties loadResource(URL url, Charset charset) throws IOException {
+        Map<String, String> map = new HashMap<>();
+        try (InputStream stream = url.openStream()) {
+            PropertiesParser.load(stream, charset, map::put);
+        }
+        return new ImmutableProperties(map);
+    }
+
+    private static long modificationStamp(URL url) throws IOException {
+        String protocol = url.getProtocol();
+        if ("file".equals(protocol)) {
+            File file;
+            try {
+                file = new File(url.toURI());
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                file = new File(url.getPath());
+            }
+            return file.lastModified() * 31 + file.length();
+        }
+        if ("jar".equals(protocol)) {
+            URLConnection connection = url.openConnection();
+            if (connection instanceof JarURLConnection) {
+                return ((JarURLConnection) connection).getJarEntry().getTime();
+            }
+        }
+        return 0;
+    }
+
+    private static final class Entry {
+
+        private final long stamp;
+
+        private final CompletableFuture<Properties> future;
+
+        Entry(long stamp) {
+            this.stamp = stamp;
+            this.future = new CompletableFuture<>();
+        }
+
+        Properties await() throws IOException {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw e;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2012-2021 Erwin Müller <erwin.mueller@anrisoftware.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anrisoftware.propertiesutils;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.enumeration;
+import static java.util.Collections.unmodifiableCollection;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Collections.unmodifiableSet;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Properties over a memory mapped {@link PropertiesSnapshot}.
+ * <p>
+ * A property is looked up with a binary search in the sorted key index of the
+ * snapshot and its value is decoded on the first look-up. The properties are
+ * only decoded all at once if they are enumerated. All methods that would
+ * modify the properties throw {@link UnsupportedOperationException}.
+ *
+ * @author Erwin Müller, erwin.mueller@deventm.de
+ * @since 4.7.0
+ */
+@SuppressWarnings("serial")
+final class SnapshotProperties extends Properties {
+
+    private static final String IMMUTABLE_MESSAGE = "The properties are immutable.";
+
+    private final transient ByteBuffer buffer;
+
+    private final int count;
+
+    private final int indexStart;
+
+    private final int stringsStart;
+
+    private final transient AtomicReferenceArray<String> values;
+
+    private transient volatile Map<Object, Object> entries;
+
+    /**
+     * Sets the mapped snapshot.
+     *
+     * @param buffer       the {@link ByteBuffer} of the snapshot.
+     *
+     * @param count        the count of the properties.
+     *
+     * @param indexStart   the offset of the key index.
+     *
+     * @param stringsStart the offset of the string table.
+     *
+     * @param defaults     the default {@link Properties}.
+     */
+    SnapshotProperties(ByteBuffer buffer, int count, int indexStart, int stringsStart, Properties defaults) {
+        super(defaults);
+        this.buffer = buffer;
+        this.count = count;
+        this.indexStart = indexStart;
+        this.stringsStart = stringsStart;
+        this.values = new AtomicReferenceArray<>(count);
+    }
+
+    @Override
+    public String getProperty(String key) {
+        String value = lookup(key);
+        Properties defaults = this.defaults;
+        return value == null && defaults != null ? defaults.getProperty(key) : value;
+    }
+
+    @Override
+    public Object get(Object key) {
+        return key instanceof String ? lookup((String) key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public Object getOrDefault(Object key, Object defaultValue) {
+        Object value = get(key);
+        return value == null ? defaultValue : value;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    private String lookup(String key) {
+        int index = indexOf(key.getBytes(UTF_8));
+        if (index < 0) {
+            return null;
+        }
+        String value = values.get(index);
+        if (value == null) {
+            int entry = indexStart + index * PropertiesSnapshot.INDEX_ENTRY_SIZE;
+            value = decode(buffer.getInt(entry + 8), buffer.getInt(entry + 12));
+            values.lazySet(index, value);
+        }
+        return value;
+    }
+
+    private int indexOf(byte[] key) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int entry = indexStart + mid * PropertiesSnapshot.INDEX_ENTRY_SIZE;
+            int c = compare(buffer.getInt(entry), buffer.getInt(entry + 4), key);
+            if (c < 0) {
+                low = mid + 1;
+            } else if (c > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int compare(int offset, int length, byte[] key) {
+        int start = stringsStart + offset;
+        int n = Math.min(length, key.length);
+        for (int i = 0; i < n; i++) {
+            int c = Byte.compareUnsigned(buffer.get(start + i), key[i]);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return length - key.length;
+    }
+
+    private String decode(int offset, int length) {
+        ByteBuffer b = buffer.duplicate();
+        b.position(stringsStart + offset);
+        byte[] bytes = new byte[length];
+        b.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    /**
+     * Returns all properties of the snapshot, decodes them on the first call.
+     */
+    private Map<Object, Object> entries() {
+        Map<Object, Object> map = entries;
+        if (map == null) {
+            map = new HashMap<>(count * 4 / 3 + 1);
+            for (int i = 0; i < count; i++) {
+                int entry = indexStart + i * PropertiesSnapshot.INDEX_ENTRY_SIZE;
+                String value = values.get(i);
+                if (value == null) {
+                    value = decode(buffer.getInt(entry + 8), buffer.getInt(entry + 12));
+                }
+                map.put(decode(buffer.getInt(entry), buffer.getInt(entry + 4)), value);
+            }
+            map = unmodifiableMap(map);
+            entries = map;
+        }
+        return map;
+    }
+
+    @Override
+    public Set<Object> keySet() {
+        return unmodifiableSet(entries().keySet());
+    }
+
+    @Override
+    public Collection<Object> values() {
+        return unmodifiableCollection(entries().values());
+    }
+
+    @Override
+    public Set<Map.Entry<Object, Object>> entrySet() {
+        return entries().entrySet();
+    }
+
+    @Override
+    public Enumeration<Object> keys() {
+        return enumeration(entries().keySet());
+    }
+
+    @Override
+    public Enumeration<Object> elements() {
+        return enumeration(entries().values());
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        return entries().containsValue(value);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return entries().containsValue(value);
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super Object, ? super Object> action) {
+        entries().forEach(action);
+    }
+
+    @Override
+    public synchronized boolean equals(Object o) {
+        return o == this || o instanceof Map && entries().equals(o);
+    }
+
+    @Override
+    public synchronized int hashCode() {
+        return entries().hashCode();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return entries().toString();
+    }
+
+    @Override
+    public synchronized Object clone() {
+        Properties properties = new Properties(defaults);
+        properties.putAll(entries());
+        return properties;
+    }
+
+    @Override
+    public synchronized Object put(Object key, Object value) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized void putAll(Map<?, ?> t) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized Object remove(Object key) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized boolean remove(Object key, Object value) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized void clear() {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized Object putIfAbsent(Object key, Object value) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized boolean replace(Object key, Object oldValue, Object newValue) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized Object replace(Object key, Object value) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized void replaceAll(BiFunction<? super Object, ? super Object, ?> function) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized Object computeIfAbsent(Object key, Function<? super Object, ?> mappingFunction) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized Object computeIfPresent(Object key,
+            BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized Object compute(Object key, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+    @Override
+    public synchronized Object merge(Object key, Object value,
+            BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        throw new UnsupportedOperationException(IMMUTABLE_MESSAGE);
+    }
+
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright 2012-2021 Erwin Müller <erwin.mueller@anrisoftware.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anrisoftware.propertiesutils;
+
+import static java.lang.String.format;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Base64;
+
+import com.thoughtworks.xstream.XStream;
+
+/**
+ * The standard codecs for binary property values.
+ * <p>
+ * The codec of a value is detected from its prefix:
+ * <ul>
+ * <li>{@code base64:} for Base64 encoded data, line breaks and whitespace are
+ * ignored;</li>
+ * <li>{@code hex:} for hexadecimal encoded data, whitespace is ignored;</li>
+ * <li>{@code <} for XStream XML data, for example
+ * {@code <byte-array>YWJj</byte-array>}.</li>
+ * </ul>
+ * The XStream instance is created once on the first use and shared. XStream
+ * is only needed for XStream values.
+ * <p>
+ * The streams of the Base64 and hexadecimal codecs decode the characters of
+ * the value while the stream is read, without a copy of the data. The stream
+ * of the XStream codec decodes a {@code <byte-array>} element in the same way
+ * as Base64 data.
+ *
+ * @author Erwin Müller, erwin.mueller@deventm.de
+ * @since 4.7.0
+ */
+public enum StandardByteCodec implements ByteCodec {
+
+    /**
+     * Base64 encoded data with the prefix {@code base64:}.
+     */
+    BASE64("base64:") {
+
+        @Override
+        public byte[] decode(String value) {
+            return Base64.getMimeDecoder().decode(stripPrefix(value));
+        }
+
+        @Override
+        public InputStream decodeStream(String value) {
+            int begin = value.startsWith(getPrefix()) ? getPrefix().length() : 0;
+            return Base64.getMimeDecoder().wrap(new CharsInputStream(value, begin, value.length()));
+        }
+    },
+
+    /**
+     * Hexadecimal encoded data with the prefix {@code hex:}.
+     */
+    HEX("hex:") {
+
+        @Override
+        public byte[] decode(String value) {
+            value = stripPrefix(value);
+            byte[] data = new byte[value.length() / 2];
+            int count = 0;
+            int high = -1;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    continue;
+                }
+                int digit = Character.digit(c, 16);
+                if (digit == -1) {
+                    throw new IllegalArgumentException(format(HEX_DIGIT_MESSAGE, c, i));
+                }
+                if (high == -1) {
+                    high = digit;
+                } else {
+                    data[count++] = (byte) (high << 4 | digit);
+                    high = -1;
+                }
+            }
+            if (high != -1) {
+                throw new IllegalArgumentException(HEX_LENGTH_MESSAGE);
+            }
+            return count == data.length ? data : Arrays.copyOf(data, count);
+        }
+
+        @Override
+        public InputStream decodeStream(String value) {
+            int begin = value.startsWith(getPrefix()) ? getPrefix().length() : 0;
+            return new HexInputStream(value, begin);
+        }
+    },
+
+    /**
+     * XStream XML data, for example {@code <byte-array>YWJj</byte-array>}.
+     */
+    XSTREAM("<") {
+
+        @Override
+        public byte[] decode(String value) {
+            Object data = XStreamHolder.XSTREAM.fromXML(value);
+            if (!(data instanceof byte[])) {
+                throw new IllegalArgumentException(NOT_BYTES_MESSAGE);
+            }
+            return (byte[]) data;
+        }
+
+        @Override
+        public InputStream decodeStream(String value) {
+            int begin = 0;
+            int end = value.length();
+            while (begin < end && Character.isWhitespace(value.charAt(begin))) {
+                begin++;
+            }
+            while (end > begin && Character.isWhitespace(value.charAt(end - 1))) {
+                end--;
+            }
+            if (end - begin < BYTE_ARRAY_BEGIN.length() + BYTE_ARRAY_END.length()
+                    || !value.startsWith(BYTE_ARRAY_BEGIN, begin)
+                    || !value.startsWith(BYTE_ARRAY_END, end - BYTE_ARRAY_END.length())) {
+                return new ByteArrayInputStream(decode(value));
+            }
+            begin += BYTE_ARRAY_BEGIN.length();
+            end -= BYTE_ARRAY_END.length();
+            int element = value.indexOf('<', begin);
+            if (element != -1 && element < end) {
+                return new ByteArrayInputStream(decode(value));
+            }
+            return Base64.getMimeDecoder().wrap(new CharsInputStream(value, begin, end));
+        }
+    };
+
+    private static final String BYTE_ARRAY_BEGIN = "<byte-array>";
+
+    private static final String BYTE_ARRAY_END = "</byte-array>";
+
+    private static final String HEX_DIGIT_MESSAGE = "Invalid hexadecimal digit '%s' at %d.";
+
+    private static final String HEX_LENGTH_MESSAGE = "Odd count of hexadecimal digits.";
+
+    private static final String NOT_BYTES_MESSAGE = "The XML data is not a byte array.";
+
+    private final String prefix;
+
+    StandardByteCodec(String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * Returns the prefix of the encoded values.
+     *
+     * @return the prefix.
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    @Override
+    public boolean isEncoded(String value) {
+        return value.startsWith(prefix);
+    }
+
+    String stripPrefix(String value) {
+        return value.startsWith(prefix) ? value.substring(prefix.length()) : value;
+    }
+
+    /**
+     * Creates the XStream instance on the first use.
+     */
+    private static final class XStreamHolder {
+
+        static final XStream XSTREAM = createXStream();
+
+        private static XStream createXStream() {
+            XStream xstream = new XStream();
+            xstream.allowTypes(new Class[] { byte[].class });
+            return xstream;
+        }
+    }
+
+    /**
+     * Reads the characters of a string as bytes, characters that are not in
+     * ISO-8859-1 are read as {@code ?}.
+     */
+    private static final class CharsInputStream extends InputStream {
+
+        private final String value;
+
+        private final int end;
+
+        private int off;
+
+        CharsInputStream(String value, int begin, int end) {
+            this.value = value;
+            this.off = begin;
+            this.end = end;
+        }
+
+        @Override
+        public int read() {
+            return off < end ? toByte(value.charAt(off++)) : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int offset, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (off >= end) {
+                return -1;
+            }
+            int n = Math.min(len, end - off);
+            for (int i = 0; i < n; i++) {
+                b[offset + i] = (byte) toByte(value.charAt(off++));
+            }
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return end - off;
+        }
+
+        private static int toByte(char c) {
+            return c > 0xff ? '?' : c;
+        }
+    }
+
+    /**
+     * Decodes hexadecimal digits while the stream is read.
+     */
+    private static final class HexInputStream extends InputStream {
+
+        private final String value;
+
+        private int off;
+
+        HexInputStream(String value, int begin) {
+            this.value = value;
+            this.off = begin;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int high = nextDigit();
+            if (high == -1) {
+                return -1;
+            }
+            int low = nextDigit();
+            if (low == -1) {
+                throw new IOException(HEX_LENGTH_MESSAGE);
+            }
+            return high << 4 | low;
+        }
+
+        @Override
+        public int read(byte[] b, int offset, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            int n = 0;
+            while (n < len) {
+                int c = read();
+                if (c == -1) {
+                    break;
+                }
+                b[offset + n++] = (byte) c;
+            }
+            return n == 0 ? -1 : n;
+        }
+
+        private int nextDigit() throws IOException {
+            int length = value.length();
+            while (off < length && Character.isWhitespace(value.charAt(off))) {
+                off++;
+            }
+            if (off == length) {
+                return -1;
+            }
+            char c = value.charAt(off);
+            int digit = Character.digit(c, 16);
+            if (digit == -1) {
+                throw new IOException(format(HEX_DIGIT_MESSAGE, c, off));
+            }
+            off++;
+            return digit;
+        }
+    }
+}
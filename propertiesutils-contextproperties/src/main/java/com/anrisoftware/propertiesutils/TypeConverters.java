@@ -0,0 +1,130 @@
+/*
+ * Copyright 2012-2021 Erwin Müller <erwin.mueller@anrisoftware.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anrisoftware.propertiesutils;
+
+import static java.lang.String.format;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Converters from the property value to the supported types.
+ * <p>
+ * Supported are {@link String}, {@link Boolean}, {@link Integer}, {@link Long},
+ * {@link Double}, {@link Number}, {@link Character}, {@link Charset},
+ * {@link URL}, {@link URI}, {@link File} and the primitive types
+ * {@code boolean}, {@code int}, {@code long}, {@code double} and {@code char}.
+ *
+ * @author Erwin Müller, erwin.mueller@deventm.de
+ * @since 4.7.0
+ */
+final class TypeConverters {
+
+    private static final String UNSUPPORTED_MESSAGE = "The type '%s' is not supported.";
+
+    private static final Map<Class<?>, StringToType<?>> CONVERTERS = createConverters();
+
+    private TypeConverters() {
+    }
+
+    /**
+     * Returns if the type is supported.
+     *
+     * @param type the {@link Class} of the type.
+     *
+     * @return {@code true} if a converter is available for the type.
+     */
+    static boolean isSupported(Class<?> type) {
+        return CONVERTERS.containsKey(type);
+    }
+
+    /**
+     * Returns the converter for the type.
+     *
+     * @param type the {@link Class} of the type.
+     *
+     * @return the {@link StringToType} converter.
+     *
+     * @throws IllegalArgumentException if the type is not supported.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> StringToType<T> getConverter(Class<T> type) {
+        StringToType<T> converter = (StringToType<T>) CONVERTERS.get(type);
+        if (converter == null) {
+            throw new IllegalArgumentException(format(UNSUPPORTED_MESSAGE, type.getName()));
+        }
+        return converter;
+    }
+
+    private static Map<Class<?>, StringToType<?>> createConverters() {
+        Map<Class<?>, StringToType<?>> map = new HashMap<>();
+        map.put(String.class, (StringToType<String>) value -> value);
+        put(map, Boolean.class, boolean.class, Boolean::valueOf);
+        put(map, Integer.class, int.class, value -> NumberParser.parseInt(value, 0, value.length()));
+        put(map, Long.class, long.class, value -> NumberParser.parseLong(value, 0, value.length()));
+        put(map, Double.class, double.class, value -> NumberParser.parseDouble(value, 0, value.length()));
+        put(map, Character.class, char.class, TypeConverters::toCharacter);
+        map.put(Number.class, map.get(Double.class));
+        map.put(Charset.class, (StringToType<Charset>) Charset::forName);
+        map.put(URL.class, (StringToType<URL>) TypeConverters::toURL);
+        map.put(URI.class, (StringToType<URI>) TypeConverters::toURI);
+        map.put(File.class, (StringToType<File>) File::new);
+        return map;
+    }
+
+    private static <T> void put(Map<Class<?>, StringToType<?>> map, Class<T> type, Class<?> primitive,
+            StringToType<T> converter) {
+        map.put(type, converter);
+        map.put(primitive, converter);
+    }
+
+    private static Character toCharacter(String value) throws ParseException {
+        if (value.isEmpty()) {
+            throw new ParseException(value, 0);
+        }
+        return value.charAt(0);
+    }
+
+    private static URL toURL(String value) throws ParseException {
+        try {
+            return new URL(value);
+        } catch (MalformedURLException e) {
+            throw parseException(value, 0, e);
+        }
+    }
+
+    private static URI toURI(String value) throws ParseException {
+        try {
+            return new URI(value);
+        } catch (URISyntaxException e) {
+            throw parseException(value, Math.max(e.getIndex(), 0), e);
+        }
+    }
+
+    private static ParseException parseException(String value, int offset, Exception cause) {
+        ParseException e = new ParseException(value, offset);
+        e.initCause(cause);
+        return e;
+    }
+
+}
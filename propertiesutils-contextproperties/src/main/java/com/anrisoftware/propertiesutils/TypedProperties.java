@@ -16,13 +16,16 @@
 package com.anrisoftware.propertiesutils;
 
 import static java.lang.Boolean.parseBoolean;
-import static java.lang.Double.parseDouble;
 import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
 import static org.apache.commons.lang3.StringUtils.join;
 import static org.apache.commons.lang3.StringUtils.split;
+import static org.apache.commons.lang3.Validate.isTrue;
 
 import java.io.File;
 import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -32,11 +35,12 @@ import java.nio.charset.UnsupportedCharsetException;
 import java.text.Format;
 import java.text.ParseException;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
+import java.util.Set;
 
 /**
  * Utility to return typed properties.
@@ -47,12 +51,20 @@ import java.util.Properties;
 @SuppressWarnings("serial")
 public class TypedProperties implements Serializable {
 
-    private static final String DEFAULT_LIST_SEPARATOR_CHARS = " ,;";
+    private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<>(asList(String.class, Boolean.class,
+            Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class,
+            BigInteger.class, BigDecimal.class));
+
+    static final String DEFAULT_LIST_SEPARATOR_CHARS = " ,;";
 
     private final Properties properties;
 
     private final String listSepChars;
 
+    private int cacheSize;
+
+    private transient volatile TypedValueCache cache;
+
     public TypedProperties(Map<String, Object> properties) {
         this(properties, DEFAULT_LIST_SEPARATOR_CHARS);
     }
@@ -73,6 +85,28 @@ public class TypedProperties implements Serializable {
         this.listSepChars = listSepChars;
     }
 
+    /**
+     * Caches the parsed values of the properties.
+     * <p>
+     * The number, character set, URL, URI, file, typed and list properties are
+     * parsed once and returned from the cache as long as the property value does
+     * not change. If more than the maximum count of values are cached the oldest
+     * values are evicted. The lists that are returned from the cache are
+     * unmodifiable.
+     *
+     * @param maximumSize the maximum count of the cached values.
+     *
+     * @return this {@link TypedProperties}.
+     *
+     * @since 4.7.0
+     */
+    public TypedProperties withCache(int maximumSize) {
+        isTrue(maximumSize > 0, "The maximum size must be positive.");
+        this.cacheSize = maximumSize;
+        this.cache = new TypedValueCache(maximumSize);
+        return this;
+    }
+
     /**
      * Returns a {@link String} property.
      *
@@ -127,6 +161,86 @@ public class TypedProperties implements Serializable {
         return parseBoolean(property);
     }
 
+    /**
+     * Returns a primitive boolean property.
+     *
+     * @param key          the property key.
+     *
+     * @param defaultValue the default {@code boolean}.
+     *
+     * @return the {@code boolean} from the property or the default value if no
+     *         property with the key was found.
+     *
+     * @since 4.7.0
+     */
+    public boolean getBooleanProperty(String key, boolean defaultValue) {
+        String property = getProperty(key);
+        return property == null ? defaultValue : parseBoolean(property);
+    }
+
+    /**
+     * Returns a primitive {@code int} property. The property is parsed as an
+     * integer number without parsing it as a {@code double} first.
+     *
+     * @param key          the property key.
+     *
+     * @param defaultValue the default {@code int}.
+     *
+     * @return the {@code int} from the property or the default value if no
+     *         property with the key was found.
+     *
+     * @throws NumberFormatException if the property is not an {@code int}
+     *                               number.
+     *
+     * @since 4.7.0
+     */
+    public int getIntProperty(String key, int defaultValue) {
+        String property = getProperty(key);
+        return property == null ? defaultValue : NumberParser.parseInt(property, 0, property.length());
+    }
+
+    /**
+     * Returns a primitive {@code long} property. The property is parsed as an
+     * integer number without parsing it as a {@code double} first, so large
+     * values do not lose precision.
+     *
+     * @param key          the property key.
+     *
+     * @param defaultValue the default {@code long}.
+     *
+     * @return the {@code long} from the property or the default value if no
+     *         property with the key was found.
+     *
+     * @throws NumberFormatException if the property is not a {@code long}
+     *                               number.
+     *
+     * @since 4.7.0
+     */
+    public long getLongProperty(String key, long defaultValue) {
+        String property = getProperty(key);
+        return property == null ? defaultValue : NumberParser.parseLong(property, 0, property.length());
+    }
+
+    /**
+     * Returns a primitive {@code double} property.
+     *
+     * @param key          the property key.
+     *
+     * @param defaultValue the default {@code double}.
+     *
+     * @return the {@code double} from the property or the default value if no
+     *         property with the key was found.
+     *
+     * @throws NumberFormatException if the property is not a {@code double}
+     *                               number.
+     *
+     * @since 4.7.0
+     */
+    public double getDoubleProperty(String key, double defaultValue) {
+        String property = getProperty(key);
+        return property == null ? defaultValue : NumberParser.parseDouble(property, 0, property.length());
+    }
+
     /**
      * Returns a number property.
      *
@@ -137,7 +251,7 @@ public class TypedProperties implements Serializable {
      */
     public Number getNumberProperty(String key) {
         String property = getProperty(key);
-        return property == null ? null : parseDouble(property);
+        return property == null ? null : parseCached(key, Double.class, null, property, Double::parseDouble);
     }
 
     /**
@@ -155,7 +269,7 @@ public class TypedProperties implements Serializable {
      */
     public Number getNumberProperty(String key, Number defaultValue) {
         String property = getProperty(key, String.valueOf(defaultValue));
-        return parseDouble(property);
+        return parseCached(key, Double.class, null, property, Double::parseDouble);
     }
 
     /**
@@ -204,7 +318,7 @@ public class TypedProperties implements Serializable {
      */
     public Charset getCharsetProperty(String key) {
         String property = getProperty(key);
-        return property == null ? null : Charset.forName(property);
+        return property == null ? null : parseCached(key, Charset.class, null, property, Charset::forName);
     }
 
     /**
@@ -223,7 +337,7 @@ public class TypedProperties implements Serializable {
      */
     public Charset getCharsetProperty(String key, Charset defaultValue) {
         String property = getProperty(key, String.valueOf(defaultValue));
-        return Charset.forName(property);
+        return parseCached(key, Charset.class, null, property, Charset::forName);
     }
 
     /**
@@ -238,7 +352,7 @@ public class TypedProperties implements Serializable {
      */
     public URL getURLProperty(String key) throws MalformedURLException {
         String property = getProperty(key);
-        return property == null ? null : new URL(property);
+        return property == null ? null : parseCached(key, URL.class, null, property, URL::new);
     }
 
     /**
@@ -255,7 +369,7 @@ public class TypedProperties implements Serializable {
      */
     public URL getURLProperty(String key, URL defaultValue) throws MalformedURLException {
         String property = getProperty(key);
-        return property == null ? defaultValue : new URL(property);
+        return property == null ? defaultValue : parseCached(key, URL.class, null, property, URL::new);
     }
 
     /**
@@ -270,7 +384,7 @@ public class TypedProperties implements Serializable {
      */
     public URI getURIProperty(String key) throws URISyntaxException {
         String property = getProperty(key);
-        return property == null ? null : new URI(property);
+        return property == null ? null : parseCached(key, URI.class, null, property, URI::new);
     }
 
     /**
@@ -287,7 +401,7 @@ public class TypedProperties implements Serializable {
      */
     public URI getURIProperty(String key, URI defaultValue) throws URISyntaxException {
         String property = getProperty(key, String.valueOf(defaultValue));
-        return new URI(property);
+        return parseCached(key, URI.class, null, property, URI::new);
     }
 
     /**
@@ -300,7 +414,7 @@ public class TypedProperties implements Serializable {
      */
     public File getFileProperty(String key) {
         String property = getProperty(key);
-        return property == null ? null : new File(property);
+        return property == null ? null : parseCached(key, File.class, null, property, File::new);
     }
 
     /**
@@ -315,7 +429,7 @@ public class TypedProperties implements Serializable {
      */
     public File getFileProperty(String key, File defaultValue) {
         String property = getProperty(key);
-        return property == null ? defaultValue : new File(property);
+        return property == null ? defaultValue : parseCached(key, File.class, null, property, File::new);
     }
 
     /**
@@ -355,7 +469,7 @@ public class TypedProperties implements Serializable {
     @SuppressWarnings("unchecked")
     public <T> T getTypedProperty(String key, Format format, T defaultValue) throws ParseException {
         String property = getProperty(key, String.valueOf(defaultValue));
-        return property == null ? null : (T) format.parseObject(property);
+        return property == null ? null : (T) parseFormatCached(key, format, null, property, format::parseObject);
     }
 
     /**
@@ -394,15 +508,15 @@ public class TypedProperties implements Serializable {
      * @throws ParseException if there was an error to parse a key value.
      */
     public <T> List<T> getTypedListProperty(String key, Format format, String separatorChars) throws ParseException {
-        List<T> list = new ArrayList<>();
         String property = getProperty(key);
         if (property == null) {
-            return list;
+            return new ArrayList<>();
         }
-        for (String value : split(property, separatorChars)) {
-            addParsedObject(list, format, value);
+        if (getCache() == null) {
+            return parseList(property, format, separatorChars);
         }
-        return list;
+        return parseFormatCached(key, format, separatorChars, property,
+                p -> unmodifiableList(parseList(p, format, separatorChars)));
     }
 
     /**
@@ -446,17 +560,21 @@ public class TypedProperties implements Serializable {
      */
     public <T> List<T> getTypedListProperty(String key, Format format, List<T> defaultValue, String separatorChars)
             throws ParseException {
-        List<T> list = new ArrayList<>();
         String property = getProperty(key, join(defaultValue, ","));
-        for (String value : split(property, listSepChars)) {
-            addParsedObject(list, format, value);
+        if (getCache() == null) {
+            return parseList(property, format, listSepChars);
         }
-        return list;
+        return parseFormatCached(key, format, listSepChars, property,
+                p -> unmodifiableList(parseList(p, format, listSepChars)));
     }
 
     @SuppressWarnings("unchecked")
-    private <T> void addParsedObject(List<T> list, Format format, String value) throws ParseException {
-        list.add((T) format.parseObject(value));
+    private <T> List<T> parseList(String property, Format format, String separatorChars) throws ParseException {
+        List<T> list = new ArrayList<>();
+        for (String value : split(property, separatorChars)) {
+            list.add((T) format.parseObject(value));
+        }
+        return list;
     }
 
     /**
@@ -498,15 +616,12 @@ public class TypedProperties implements Serializable {
      */
     public <T> List<T> getTypedListProperty(String key, StringToType<T> stringToType, String separatorChars)
             throws ParseException {
-        List<T> list = new ArrayList<>();
         String property = getProperty(key);
         if (property == null) {
-            return list;
-        }
-        for (String value : split(property, separatorChars)) {
-            list.add(stringToType.stringToType(value));
+            return new ArrayList<>();
         }
-        return list;
+        return parseCachedList(key, stringToType, separatorChars, property,
+                p -> parseList(p, stringToType, separatorChars));
     }
 
     /**
@@ -531,9 +646,15 @@ public class TypedProperties implements Serializable {
      */
     public <T> List<T> getTypedListProperty(String key, StringToType<T> stringToType, List<T> defaultValue,
             String separatorChars) throws ParseException {
-        List<T> list = new ArrayList<>();
         String property = getProperty(key, join(defaultValue, ","));
-        for (String value : split(property, listSepChars)) {
+        return parseCachedList(key, stringToType, listSepChars, property,
+                p -> parseList(p, stringToType, listSepChars));
+    }
+
+    private <T> List<T> parseList(String property, StringToType<T> stringToType, String separatorChars)
+            throws ParseException {
+        List<T> list = new ArrayList<>();
+        for (String value : split(property, separatorChars)) {
             list.add(stringToType.stringToType(value));
         }
         return list;
@@ -564,7 +685,8 @@ public class TypedProperties implements Serializable {
      */
     public List<String> getListProperty(String key, String separatorChars) {
         String property = getProperty(key);
-        return property == null ? new ArrayList<>() : asList(split(property, separatorChars));
+        return property == null ? new ArrayList<>()
+                : parseCachedList(key, String.class, separatorChars, property, p -> asList(split(p, separatorChars)));
     }
 
     /**
@@ -596,7 +718,227 @@ public class TypedProperties implements Serializable {
      */
     public List<String> getListProperty(String key, List<String> defaultValue, String separatorChars) {
         String property = getProperty(key, join(defaultValue, ","));
-        return Arrays.asList(split(property, separatorChars));
+        return parseCachedList(key, String.class, separatorChars, property, p -> asList(split(p, separatorChars)));
+    }
+
+    /**
+     * Returns a list property of primitive {@code int} numbers.
+     *
+     * @param key the property key.
+     *
+     * @return the {@code int} array from the property or an empty array if no
+     *         property with the key was found.
+     *
+     * @throws NumberFormatException if an item is not an {@code int} number.
+     *
+     * @since 4.7.0
+     */
+    public int[] getIntArrayProperty(String key) {
+        return getIntArrayProperty(key, listSepChars);
+    }
+
+    /**
+     * Returns a list property of primitive {@code int} numbers.
+     * <p>
+     * The numbers are parsed directly from the property value. If the cache is
+     * enabled the parsed numbers are cached and a copy is returned.
+     *
+     * @param key            the property key.
+     *
+     * @param separatorChars the characters used as the delimiters, {@code null}
+     *                       splits on whitespace.
+     *
+     * @return the {@code int} array from the property or an empty array if no
+     *         property with the key was found.
+     *
+     * @throws NumberFormatException if an item is not an {@code int} number.
+     *
+     * @since 4.7.0
+     */
+    public int[] getIntArrayProperty(String key, String separatorChars) {
+        String property = getProperty(key);
+        if (property == null) {
+            return new int[0];
+        }
+        if (getCache() == null) {
+            return NumberParser.parseIntArray(property, separatorChars);
+        }
+        return parseCached(key, int[].class, separatorChars, property,
+                p -> NumberParser.parseIntArray(p, separatorChars)).clone();
+    }
+
+    /**
+     * Returns a list property of primitive {@code long} numbers.
+     *
+     * @param key the property key.
+     *
+     * @return the {@code long} array from the property or an empty array if no
+     *         property with the key was found.
+     *
+     * @throws NumberFormatException if an item is not a {@code long} number.
+     *
+     * @since 4.7.0
+     */
+    public long[] getLongArrayProperty(String key) {
+        return getLongArrayProperty(key, listSepChars);
+    }
+
+    /**
+     * Returns a list property of primitive {@code long} numbers.
+     * <p>
+     * The numbers are parsed directly from the property value. If the cache is
+     * enabled the parsed numbers are cached and a copy is returned.
+     *
+     * @param key            the property key.
+     *
+     * @param separatorChars the characters used as the delimiters, {@code null}
+     *                       splits on whitespace.
+     *
+     * @return the {@code long} array from the property or an empty array if no
+     *         property with the key was found.
+     *
+     * @throws NumberFormatException if an item is not a {@code long} number.
+     *
+     * @since 4.7.0
+     */
+    public long[] getLongArrayProperty(String key, String separatorChars) {
+        String property = getProperty(key);
+        if (property == null) {
+            return new long[0];
+        }
+        if (getCache() == null) {
+            return NumberParser.parseLongArray(property, separatorChars);
+        }
+        return parseCached(key, long[].class, separatorChars, property,
+                p -> NumberParser.parseLongArray(p, separatorChars)).clone();
+    }
+
+    /**
+     * Returns a list property of primitive {@code double} numbers.
+     *
+     * @param key the property key.
+     *
+     * @return the {@code double} array from the property or an empty array if no
+     *         property with the key was found.
+     *
+     * @throws NumberFormatException if an item is not a {@code double} number.
+     *
+     * @since 4.7.0
+     */
+    public double[] getDoubleArrayProperty(String key) {
+        return getDoubleArrayProperty(key, listSepChars);
+    }
+
+    /**
+     * Returns a list property of primitive {@code double} numbers.
+     * <p>
+     * The numbers are parsed directly from the property value. If the cache is
+     * enabled the parsed numbers are cached and a copy is returned.
+     *
+     * @param key            the property key.
+     *
+     * @param separatorChars the characters used as the delimiters, {@code null}
+     *                       splits on whitespace.
+     *
+     * @return the {@code double} array from the property or an empty array if no
+     *         property with the key was found.
+     *
+     * @throws NumberFormatException if an item is not a {@code double} number.
+     *
+     * @since 4.7.0
+     */
+    public double[] getDoubleArrayProperty(String key, String separatorChars) {
+        String property = getProperty(key);
+        if (property == null) {
+            return new double[0];
+        }
+        if (getCache() == null) {
+            return NumberParser.parseDoubleArray(property, separatorChars);
+        }
+        return parseCached(key, double[].class, separatorChars, property,
+                p -> NumberParser.parseDoubleArray(p, separatorChars)).clone();
+    }
+
+    /**
+     * Returns the value parsed from the property value, from the cache if the
+     * cache is enabled.
+     *
+     * @see #withCache(int)
+     */
+    <T, E extends Exception> T parseCached(String key, Object type, String separatorChars, String property,
+            ValueParser<T, E> parser) throws E {
+        TypedValueCache cache = getCache();
+        if (cache == null) {
+            return parser.parse(property);
+        }
+        T value = cache.get(key, type, separatorChars, property);
+        if (value == null) {
+            value = parser.parse(property);
+            cache.put(key, type, separatorChars, property, value);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the value parsed with a {@link Format}, from the cache if the cache
+     * is enabled. A {@link Format} can return mutable values, such as a
+     * {@link java.util.Date}, so only immutable values are cached and shared.
+     */
+    private <T> T parseFormatCached(String key, Format format, String separatorChars, String property,
+            ValueParser<T, ParseException> parser) throws ParseException {
+        TypedValueCache cache = getCache();
+        if (cache == null) {
+            return parser.parse(property);
+        }
+        T value = cache.get(key, format, separatorChars, property);
+        if (value == null) {
+            value = parser.parse(property);
+            if (isImmutable(value)) {
+                cache.put(key, format, separatorChars, property, value);
+            }
+        }
+        return value;
+    }
+
+    private static boolean isImmutable(Object value) {
+        if (value instanceof List) {
+            for (Object item : (List<?>) value) {
+                if (!isImmutable(item)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return value == null || IMMUTABLE_TYPES.contains(value.getClass()) || value instanceof Enum;
+    }
+
+    private <T, E extends Exception> List<T> parseCachedList(String key, Object type, String separatorChars,
+            String property, ValueParser<List<T>, E> parser) throws E {
+        if (getCache() == null) {
+            return parser.parse(property);
+        }
+        return parseCached(key, type, separatorChars, property, p -> unmodifiableList(parser.parse(p)));
+    }
+
+    private TypedValueCache getCache() {
+        TypedValueCache cache = this.cache;
+        if (cache == null && cacheSize > 0) {
+            cache = new TypedValueCache(cacheSize);
+            this.cache = cache;
+        }
+        return cache;
+    }
+
+    /**
+     * Parses the property value.
+     *
+     * @param <T> the type of the value.
+     *
+     * @param <E> the exception that is thrown if the value cannot be parsed.
+     */
+    interface ValueParser<T, E extends Exception> {
+
+        T parse(String property) throws E;
     }
 
 }
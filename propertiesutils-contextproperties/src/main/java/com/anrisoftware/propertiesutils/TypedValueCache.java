@@ -0,0 +1,157 @@
+/*
+ * Copyright 2012-2021 Erwin Müller <erwin.mueller@anrisoftware.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anrisoftware.propertiesutils;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Caches the parsed values of properties.
+ * <p>
+ * The values are cached by the property key and the type they are parsed to,
+ * together with the property value they were parsed from. A cached value is
+ * only returned if the property value is still the same, so changes to the
+ * properties are picked up on the next read. If the cache is full the oldest
+ * entries are evicted first.
+ *
+ * @author Erwin Müller, erwin.mueller@deventm.de
+ * @since 4.7.0
+ */
+final class TypedValueCache {
+
+    private final int maximumSize;
+
+    private final Map<Key, Entry> entries;
+
+    private final Queue<Key> order;
+
+    /**
+     * Sets the maximum count of the cached values.
+     *
+     * @param maximumSize the maximum count of the cached values.
+     */
+    TypedValueCache(int maximumSize) {
+        this.maximumSize = maximumSize;
+        this.entries = new ConcurrentHashMap<>();
+        this.order = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Returns the cached value.
+     *
+     * @param key            the property key.
+     *
+     * @param type           the type token, for example the {@link Class} or the
+     *                       {@link java.text.Format} of the value.
+     *
+     * @param separatorChars the separator characters of a list value or
+     *                       {@code null}.
+     *
+     * @param property       the property value.
+     *
+     * @return the cached value or {@code null} if the value is not cached or was
+     *         parsed from a different property value.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(String key, Object type, String separatorChars, String property) {
+        Entry entry = entries.get(new Key(key, type, separatorChars));
+        if (entry == null || !entry.property.equals(property)) {
+            return null;
+        }
+        return (T) entry.value;
+    }
+
+    /**
+     * Caches the value.
+     *
+     * @param key            the property key.
+     *
+     * @param type           the type token.
+     *
+     * @param separatorChars the separator characters of a list value or
+     *                       {@code null}.
+     *
+     * @param property       the property value.
+     *
+     * @param value          the value parsed from the property value.
+     */
+    void put(String key, Object type, String separatorChars, String property, Object value) {
+        Key k = new Key(key, type, separatorChars);
+        if (entries.put(k, new Entry(property, value)) != null) {
+            return;
+        }
+        order.add(k);
+        while (entries.size() > maximumSize) {
+            Key oldest = order.poll();
+            if (oldest == null) {
+                break;
+            }
+            entries.remove(oldest);
+        }
+    }
+
+    private static final class Key {
+
+        private final String key;
+
+        private final Object type;
+
+        private final String separatorChars;
+
+        private final int hash;
+
+        Key(String key, Object type, String separatorChars) {
+            this.key = key;
+            this.type = type;
+            this.separatorChars = separatorChars;
+            this.hash = (31 * Objects.hashCode(key) + type.hashCode()) * 31 + Objects.hashCode(separatorChars);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key rhs = (Key) obj;
+            return Objects.equals(key, rhs.key) && Objects.equals(type, rhs.type)
+                    && Objects.equals(separatorChars, rhs.separatorChars);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+
+        private final String property;
+
+        private final Object value;
+
+        Entry(String property, Object value) {
+            this.property = property;
+            this.value = value;
+        }
+    }
+
+}
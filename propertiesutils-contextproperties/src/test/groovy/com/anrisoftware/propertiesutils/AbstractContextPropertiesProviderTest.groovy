@@ -0,0 +1,98 @@
+/*
+ * Copyright 2012-2021 Erwin Müller <erwin.mueller@anrisoftware.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anrisoftware.propertiesutils
+
+import static com.anrisoftware.globalpom.utils.TestUtils.*
+import static org.junit.jupiter.api.Assertions.*
+
+import java.util.concurrent.ExecutionException
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+
+import com.google.inject.Guice
+import com.google.inject.ProvisionException
+
+/**
+ * @see AbstractContextPropertiesProvider
+ *
+ * @author Erwin Müller, erwin.mueller@deventm.de
+ * @since 4.7.0
+ */
+class AbstractContextPropertiesProviderTest {
+
+    @TempDir
+    File tmp
+
+    static URL RESOURCE_URL = AbstractContextPropertiesProviderTest.class.getResource("/test.properties")
+
+    static class TestPropertiesProvider extends AbstractContextPropertiesProvider {
+
+        TestPropertiesProvider() {
+            super(AbstractContextPropertiesProviderTest, RESOURCE_URL)
+        }
+    }
+
+    static class EagerPropertiesProvider extends AbstractContextPropertiesProvider {
+
+        EagerPropertiesProvider() {
+            super(AbstractContextPropertiesProviderTest, RESOURCE_URL)
+            withEagerLoading()
+        }
+    }
+
+    static class MissingPropertiesProvider extends AbstractContextPropertiesProvider {
+
+        MissingPropertiesProvider() {
+            super(AbstractContextPropertiesProviderTest, new URL("file:/not/existing.properties"))
+            withEagerLoading()
+        }
+    }
+
+    @Test
+    void "load properties"() {
+        def provider = new TestPropertiesProvider()
+        def properties = provider.get()
+        assertStringContent properties.getProperty("testString"), "Foo"
+        assertSame properties, provider.get()
+    }
+
+    @Test
+    void "load properties eager on injection"() {
+        def provider = Guice.createInjector().getInstance(EagerPropertiesProvider)
+        assert provider.isLoadingStarted()
+        def properties = provider.loadPropertiesAsync().get()
+        assertStringContent properties.getProperty("testString"), "Foo"
+        assertSame properties, provider.get()
+    }
+
+    @Test
+    void "load properties eager error"() {
+        def provider = Guice.createInjector().getInstance(MissingPropertiesProvider)
+        assertThrows ProvisionException, { provider.get() }
+        assert !provider.isLoadingStarted()
+    }
+
+    @Test
+    void "load properties again after error"() {
+        def file = new File(tmp, 'late.properties')
+        def provider = new AbstractContextPropertiesProvider(AbstractContextPropertiesProviderTest, file.toURI().toURL()) {}
+        assertThrows ExecutionException, { provider.loadPropertiesAsync().get() }
+        assertThrows ProvisionException, { provider.get() }
+        file.text = 'com.anrisoftware.propertiesutils.testString = Foo'
+        assertStringContent provider.loadPropertiesAsync().get().getProperty("testString"), "Foo"
+    }
+}
@@ -16,8 +16,13 @@
 package com.anrisoftware.propertiesutils
 
 import static com.anrisoftware.globalpom.utils.TestUtils.*
+import static org.junit.jupiter.api.Assertions.*
+
+import java.nio.ByteBuffer
+import java.nio.ReadOnlyBufferException
 
 import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
 
 import com.thoughtworks.xstream.XStream
 
@@ -48,4 +53,194 @@ class ByteContextPropertiesTest {
         def data = byteProperties.getDataProperty "data"
         assert new String(data) == "abc"
     }
+
+    @Test
+    void "data property codecs"() {
+        def p = new ContextPropertiesFactory(ByteContextPropertiesTest).fromResource(RESOURCE_URL)
+        def byteProperties = new ByteContextProperties(ByteContextPropertiesTest, p)
+        byteProperties.withCodec("data_raw", StandardByteCodec.BASE64)
+        assert new String(byteProperties.getDataProperty("data_base64")) == "abc"
+        assert new String(byteProperties.getDataProperty("data_hex")) == "abc"
+        assert new String(byteProperties.getDataProperty("data_raw")) == "abc"
+        assert new String(byteProperties.getDataPropertyStream("data").bytes) == "abc"
+        assert byteProperties.getDataProperty("unknown") == null
+        assert StandardByteCodec.HEX.decode("0aFf") == [10, -1] as byte[]
+    }
+
+    @Test
+    void "data property custom codec"() {
+        def p = new ContextPropertiesFactory(ByteContextPropertiesTest).fromResource(RESOURCE_URL)
+        def byteProperties = new ByteContextProperties(ByteContextPropertiesTest, p)
+        byteProperties.withCodec(new ReverseCodec())
+        byteProperties.setProperty("reversed", "rev:cba")
+        assert new String(byteProperties.getDataProperty("reversed")) == "abc"
+    }
+
+    @Test
+    void "data property stream decodes while reading"() {
+        def random = new Random(4711)
+        for (int n : [0, 1, 2, 3, 57, 1000, 100000]) {
+            byte[] data = new byte[n]
+            random.nextBytes(data)
+            def values = [
+                "base64:" + Base64.getMimeEncoder().encodeToString(data),
+                "hex:" + data.collect { String.format("%02x", it) }.join(" "),
+                "<byte-array>" + Base64.encoder.encodeToString(data) + "</byte-array>",
+            ]
+            for (String value : values) {
+                def p = new ByteContextProperties("test", new Properties())
+                p.setProperty("data", value)
+                assert p.getDataProperty("data") == data
+                assert p.getDataPropertyStream("data").bytes == data
+                def channel = p.getDataPropertyChannel("data")
+                def buffer = ByteBuffer.allocate(n)
+                while (channel.read(buffer) > 0) {
+                }
+                assert buffer.array() == data
+            }
+        }
+    }
+
+    @Test
+    void "data property stream invalid hex"() {
+        def p = new ByteContextProperties("test", new Properties())
+        p.setProperty("data", "hex:6x")
+        assertThrows IllegalArgumentException, { p.getDataProperty("data") }
+        assertThrows IOException, { p.getDataPropertyStream("data").bytes }
+    }
+
+    @TempDir
+    File tmp
+
+    @Test
+    void "data property blob"() {
+        def blob = new File(tmp, "certs.bin")
+        blob.bytes = "0123456789".bytes
+        def p = new ByteContextProperties("test", new Properties())
+        p.withBlobDirectory(tmp)
+        p.setProperty("all", "@blob:certs.bin")
+        p.setProperty("range", "@blob:certs.bin#2,3")
+        p.setProperty("absolute", "@blob:" + blob.absolutePath + "#9,1")
+        p.setProperty("outside", "@blob:certs.bin#8,3")
+        p.setProperty("missing", "@blob:missing.bin")
+        assert new String(p.getDataProperty("all")) == "0123456789"
+        assert new String(p.getDataProperty("range")) == "234"
+        assert new String(p.getDataProperty("absolute")) == "9"
+        assert new String(p.getDataPropertyStream("range").bytes) == "234"
+        def buffer = p.getDataPropertyBuffer("range")
+        assert buffer.readOnly
+        assert buffer.remaining() == 3
+        assert buffer.get(0) == ('2' as char) as byte
+        assert p.getDataPropertyBuffer("all").capacity() == 10
+        assertThrows IllegalArgumentException, { p.getDataProperty("outside") }
+        assertThrows UncheckedIOException, { p.getDataProperty("missing") }
+        p.setProperty("encoded", "base64:YWJj")
+        assert p.getDataPropertyBuffer("encoded").readOnly
+    }
+
+    @Test
+    void "data property blob outside of the blob directory"() {
+        def dir = new File(tmp, "blobs")
+        dir.mkdirs()
+        new File(tmp, "secret.bin").bytes = "secret".bytes
+        def blob = new File(dir, "certs.bin")
+        blob.bytes = "0123456789".bytes
+        def p = new ByteContextProperties("test", new Properties())
+        p.withBlobDirectory(dir)
+        p.setProperty("parent", "@blob:../secret.bin")
+        p.setProperty("absolute", "@blob:" + new File(tmp, "secret.bin").absolutePath)
+        p.setProperty("system", "@blob:/etc/passwd")
+        p.setProperty("inside", "@blob:sub/../certs.bin#0,2")
+        assertThrows IllegalArgumentException, { p.getDataProperty("parent") }
+        assertThrows IllegalArgumentException, { p.getDataProperty("absolute") }
+        assertThrows IllegalArgumentException, { p.getDataProperty("system") }
+        assert new String(p.getDataProperty("inside")) == "01"
+        def file = blob.toPath().toAbsolutePath().normalize()
+        assert BlobFiles.isMapped(file)
+        blob.delete()
+        assertThrows UncheckedIOException, { p.getDataProperty("inside") }
+        assert !BlobFiles.isMapped(file)
+    }
+
+    @Test
+    void "data property blob mappings bounded"() {
+        def dir = new File(tmp, "many")
+        dir.mkdirs()
+        def p = new ByteContextProperties("test", new Properties())
+        p.withBlobDirectory(dir)
+        def count = BlobFiles.MAXIMUM_ENTRIES + 1
+        for (int i = 0; i < count; i++) {
+            new File(dir, "b${i}.bin").bytes = [i as byte] as byte[]
+            p.setProperty("b${i}", "@blob:b${i}.bin")
+            assert p.getDataProperty("b${i}") == [i as byte] as byte[]
+        }
+        def first = new File(dir, "b0.bin").toPath().toAbsolutePath().normalize()
+        def last = new File(dir, "b${count - 1}.bin").toPath().toAbsolutePath().normalize()
+        assert !BlobFiles.isMapped(first)
+        assert BlobFiles.isMapped(last)
+    }
+
+    @Test
+    void "data property cache"() {
+        def codec = new CountingCodec()
+        def p = new ByteContextProperties("test", new Properties())
+        p.withDataCache(8).withCodec("a", codec).withCodec("b", codec)
+        p.setProperty("a", "abcd")
+        p.setProperty("b", "efgh")
+        assert new String(p.getDataProperty("a")) == "abcd"
+        def buffer = p.getDataPropertyBuffer("a")
+        assert buffer.get(3) == ('d' as char) as byte
+        assertThrows ReadOnlyBufferException, { buffer.array() }
+        assert new String(p.getDataPropertyStream("a").bytes) == "abcd"
+        assert codec.count == 1
+        p.getDataProperty("a")[0] = 0 as byte
+        assert new String(p.getDataProperty("a")) == "abcd"
+        assert p.getDataPropertyBuffer("a").readOnly
+        p.getDataProperty("b")
+        assert codec.count == 2
+        p.setProperty("a", "abce")
+        assert new String(p.getDataProperty("a")) == "abce"
+        assert codec.count == 3
+        p.setProperty("c", "ijkl")
+        p.withCodec("c", codec)
+        p.getDataProperty("c")
+        p.getDataProperty("a")
+        assert codec.count == 4
+        p.getDataProperty("b")
+        assert codec.count == 5
+        p.setProperty("d", "too large")
+        p.withCodec("d", codec)
+        p.getDataProperty("d")
+        p.getDataProperty("d")
+        assert codec.count == 7
+    }
+
+    static class CountingCodec implements ByteCodec {
+
+        int count
+
+        @Override
+        boolean isEncoded(String value) {
+            false
+        }
+
+        @Override
+        byte[] decode(String value) {
+            count++
+            value.bytes
+        }
+    }
+
+    static class ReverseCodec implements ByteCodec {
+
+        @Override
+        boolean isEncoded(String value) {
+            value.startsWith("rev:")
+        }
+
+        @Override
+        byte[] decode(String value) {
+            value.substring(4).reverse().bytes
+        }
+    }
 }
@@ -16,8 +16,12 @@
 package com.anrisoftware.propertiesutils
 
 import static com.anrisoftware.globalpom.utils.TestUtils.*
+import static org.junit.jupiter.api.Assertions.*
+
+import java.nio.charset.Charset
 
 import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
 
 /**
  * Test the context properties factory.
@@ -59,6 +63,30 @@ class ContextPropertiesFactoryTest {
         assertStringContent properties.getProperty("testString"), "Bar"
     }
 
+    @Test
+    void "object context from URL resource frozen"() {
+        def defaults = new Properties()
+        defaults.put("com.anrisoftware.propertiesutils.default_key", "Bar")
+        defaults.put("com.anrisoftware.propertiesutils.testString", "Default")
+        def parent = new Properties()
+        parent.put("com.anrisoftware.propertiesutils.parent_key", "Baz")
+
+        def properties = new ContextPropertiesFactory(this).
+                withDefaultProperties(defaults).
+                withProperties(parent).
+                fromResource(RESOURCE_URL).
+                freeze().
+                withReplacement("foo", "aaa")
+        assert properties.isFrozen()
+        assertStringContent properties.getProperty("testString"), "Foo"
+        assertStringContent properties.getProperty("default_key"), "Bar"
+        assertStringContent properties.getProperty("parent_key"), "Baz"
+        assertStringContent properties.getProperty("testWithReplacements"), "Foo aaa"
+        assert properties.getProperty("unknown") == null
+        assertThrows UnsupportedOperationException, { properties.put("testString", "Bar") }
+        assertThrows UnsupportedOperationException, { properties.setProperty("testString", "Bar") }
+    }
+
     @Test
     void "object context from URL resource with replacements"() {
         def properties = new ContextPropertiesFactory(this).
@@ -100,4 +128,241 @@ class ContextPropertiesFactoryTest {
         assertStringContent properties.getProperty("testWithReplacementsWindows"),
                 "Foo $dir"
     }
+
+    @TempDir
+    File tmp
+
+    @Test
+    void "shared resources"() {
+        def file = new File(tmp, "shared.properties")
+        file.text = "com.anrisoftware.propertiesutils.testString = Foo\n"
+        def defaults = new Properties()
+        defaults.put("com.anrisoftware.propertiesutils.default_key", "Bar")
+        def a = new ContextPropertiesFactory(this).withSharedResources().fromResource(file)
+        def b = new ContextPropertiesFactory("com.anrisoftware").withSharedResources().fromResource(file)
+        def c = new ContextPropertiesFactory(this).withSharedResources().withDefaultProperties(defaults).fromResource(file)
+        assertStringContent a.getProperty("testString"), "Foo"
+        assertStringContent b.getProperty("propertiesutils.testString"), "Foo"
+        assertStringContent c.getProperty("default_key"), "Bar"
+        def url = file.toURI().toURL()
+        assertSame SharedResources.load(url, Charset.defaultCharset()), SharedResources.load(url, Charset.defaultCharset())
+        file.text = "com.anrisoftware.propertiesutils.testString = Foo Bar\n"
+        file.setLastModified(file.lastModified() + 2000)
+        def d = new ContextPropertiesFactory(this).withSharedResources().fromResource(file)
+        assertStringContent d.getProperty("testString"), "Foo Bar"
+        assertStringContent a.getProperty("testString"), "Foo"
+    }
+
+    @Test
+    void "shared resources with defaults and parent properties are not copied"() {
+        def file = new File(tmp, "shared.properties")
+        file.text = "com.anrisoftware.propertiesutils.testString = Foo\ncom.anrisoftware.propertiesutils.parent_key = Foo\n"
+        def inner = new Properties()
+        inner.put("com.anrisoftware.propertiesutils.inner_key", "Baz")
+        def defaults = new Properties(inner)
+        def parent = new Properties()
+        parent.put("com.anrisoftware.propertiesutils.parent_key", "Parent")
+        def a = new ContextPropertiesFactory(this).withSharedResources().withDefaultProperties(defaults).withProperties(parent).fromResource(file)
+        def b = new ContextPropertiesFactory(this).withSharedResources().withDefaultProperties(defaults).withProperties(parent).fromResource(file)
+        def resource = SharedResources.load(file.toURI().toURL(), Charset.defaultCharset())
+        assertSame resource, a.getDefaults().getDefaults().getLayer()
+        assertSame resource, b.getDefaults().getDefaults().getLayer()
+        assertSame parent, a.getDefaults().getLayer()
+        assertStringContent a.getProperty("testString"), "Foo"
+        assertStringContent a.getProperty("inner_key"), "Baz"
+        assertStringContent a.getProperty("parent_key"), "Parent"
+        defaults.put("com.anrisoftware.propertiesutils.default_key", "Bar")
+        assertStringContent b.getProperty("default_key"), "Bar"
+        assert a.contextPropertyNames() as Set == ['testString', 'parent_key', 'inner_key', 'default_key'] as Set
+        assertStringContent a.freeze().getProperty("parent_key"), "Parent"
+    }
+
+    @Test
+    void "chained properties view map methods"() {
+        def view = new ChainedProperties([a: '1', b: '2'], null)
+        def equal = new Properties()
+        equal.putAll([a: '1', b: '2'])
+        assert view.equals(equal)
+        assert !view.equals(new HashMap())
+        assert view.hashCode() == equal.hashCode()
+        def visited = [:]
+        view.forEach { k, v -> visited[k] = v }
+        assert visited == [a: '1', b: '2']
+        assert view.getOrDefault('a', 'X') == '1'
+        assert view.getOrDefault('c', 'X') == 'X'
+    }
+
+    @Test
+    void "live reload"() {
+        def file = new File(tmp, "live.properties")
+        file.text = "com.anrisoftware.propertiesutils.testString = Foo\n"
+        def properties = new ContextPropertiesFactory(this).withLiveReload().fromResource(file)
+        def handle = properties.handle("testString", String)
+        assertStringContent properties.getProperty("testString"), "Foo"
+        def tmpFile = new File(tmp, "live.properties.tmp")
+        tmpFile.text = "com.anrisoftware.propertiesutils.testString = Bar\n"
+        tmpFile.renameTo(file)
+        for (int i = 0; i < 100 && properties.getProperty("testString") != "Bar"; i++) {
+            Thread.sleep 100
+        }
+        assertStringContent properties.getProperty("testString"), "Bar"
+        assertStringContent handle.get(), "Bar"
+    }
+
+    @Test
+    void "live reload continues after an error"() {
+        def failing = new File(tmp, "failing.properties")
+        failing.text = "a = 1\n"
+        def file = new File(tmp, "next.properties")
+        file.text = "com.anrisoftware.propertiesutils.testString = Foo\n"
+        def failingProperties = new ContextProperties(this, new Properties())
+        ResourceWatcher.watch(failing.toPath(), failingProperties, { throw new InternalError("truncated") } as ResourceWatcher.Loader)
+        def properties = new ContextPropertiesFactory(this).withLiveReload().fromResource(file)
+        failing.text = "a = 2\n"
+        for (int i = 0; i < 10; i++) {
+            Thread.sleep 100
+        }
+        file.text = "com.anrisoftware.propertiesutils.testString = Bar\n"
+        for (int i = 0; i < 100 && properties.getProperty("testString") != "Bar"; i++) {
+            Thread.sleep 100
+        }
+        assertStringContent properties.getProperty("testString"), "Bar"
+    }
+
+    @Test
+    void "directory with live reload"() {
+        def dir = new File(tmp, "conf.d")
+        dir.mkdirs()
+        new File(dir, "10-defaults.properties").text = "com.anrisoftware.propertiesutils.a = 1\ncom.anrisoftware.propertiesutils.b = 1\n"
+        new File(dir, "20-server.properties").text = "com.anrisoftware.propertiesutils.b = 2\ncom.anrisoftware.propertiesutils.c = 2\n"
+        new File(dir, "ignored.txt").text = "com.anrisoftware.propertiesutils.d = 1\n"
+        def properties = new ContextPropertiesFactory(this).withLiveReload().fromDirectory(dir.toPath())
+        assert properties.getProperty("a") == "1"
+        assert properties.getProperty("b") == "2"
+        assert properties.getProperty("c") == "2"
+        assert properties.getProperty("d") == null
+        new File(dir, "20-server.properties").delete()
+        for (int i = 0; i < 100 && properties.getProperty("c") != null; i++) {
+            Thread.sleep 100
+        }
+        assert properties.getProperty("b") == "1"
+        assert properties.getProperty("c") == null
+        new File(dir, "30-override.properties").text = "com.anrisoftware.propertiesutils.a = 3\n"
+        for (int i = 0; i < 100 && properties.getProperty("a") != "3"; i++) {
+            Thread.sleep 100
+        }
+        assert properties.getProperty("a") == "3"
+    }
+
+    @Test
+    void "directory reload merges the changed file into a new view"() {
+        def dir = new File(tmp, "reload.d")
+        dir.mkdirs()
+        new File(dir, "10-defaults.properties").text = "a = 1\nb = 1\n"
+        def server = new File(dir, "20-server.properties")
+        server.text = "b = 2\nc = 2\n"
+        def resource = DirectoryResource.load(dir.toPath(), Charset.defaultCharset())
+        def properties = resource.getProperties()
+        assert properties.stringPropertyNames() == ['a', 'b', 'c'] as Set
+        server.text = "c = 3\n"
+        def reloaded = resource.reload(server.toPath())
+        assertNotSame properties, reloaded
+        assert properties.getProperty("b") == "2"
+        assert properties.getProperty("c") == "2"
+        assert reloaded.getProperty("a") == "1"
+        assert reloaded.getProperty("b") == "1"
+        assert reloaded.getProperty("c") == "3"
+        assertSame reloaded, resource.getProperties()
+        server.delete()
+        properties = resource.reload(server.toPath())
+        assert properties.stringPropertyNames() == ['a', 'b'] as Set
+        assert reloaded.getProperty("c") == "3"
+        assertThrows UnsupportedOperationException, { properties.put("a", "2") }
+    }
+
+    @Test
+    void "snapshot"() {
+        def file = new File(tmp, "snapshot.properties")
+        file.withWriter("UTF-8") { it.write "com.anrisoftware.propertiesutils.testString = Foo ä\ncom.anrisoftware.propertiesutils.b = Foo ä\ncom.anrisoftware.propertiesutils.c = \n" }
+        def snapshot = new File(tmp, "cache/snapshot.bin")
+        def defaults = new Properties()
+        defaults.put("com.anrisoftware.propertiesutils.default_key", "Bar")
+        def factory = new ContextPropertiesFactory(this).withSnapshot(snapshot).withDefaultProperties(defaults)
+        def a = factory.fromResource(file, Charset.forName("UTF-8"))
+        assert snapshot.isFile()
+        def written = snapshot.lastModified()
+        def b = factory.fromResource(file, Charset.forName("UTF-8"))
+        assert snapshot.lastModified() == written
+        for (def p : [a, b]) {
+            assert p.getProperty("testString") == "Foo ä"
+            assert p.getProperty("b") == "Foo ä"
+            assert p.getProperty("c") == ""
+            assert p.getProperty("default_key") == "Bar"
+            assert p.getProperty("unknown") == null
+            assert p.stringPropertyNames().containsAll([
+                "com.anrisoftware.propertiesutils.testString",
+                "com.anrisoftware.propertiesutils.c",
+                "com.anrisoftware.propertiesutils.default_key"
+            ])
+        }
+        file.text = "com.anrisoftware.propertiesutils.testString = Bar\n"
+        file.setLastModified(file.lastModified() + 2000)
+        def c = factory.fromResource(file, Charset.forName("UTF-8"))
+        assert c.getProperty("testString") == "Bar"
+        assert c.getProperty("b") == null
+        def snapshotP = PropertiesSnapshot.load(file.toPath(), Charset.forName("UTF-8"), snapshot.toPath(), null)
+        assert snapshotP instanceof SnapshotProperties
+        assert snapshotP == [(("com.anrisoftware.propertiesutils.testString")): "Bar"]
+        assertThrows UnsupportedOperationException, { snapshotP.put("a", "b") }
+    }
+
+    @Test
+    void "snapshot invalidated on same length change with same modification time"() {
+        def file = new File(tmp, "same.properties")
+        file.text = "com.anrisoftware.propertiesutils.testString = Foo\n"
+        def lastModified = file.lastModified()
+        def snapshot = new File(tmp, "cache/same.bin")
+        def factory = new ContextPropertiesFactory(this).withSnapshot(snapshot)
+        assert factory.fromResource(file).getProperty("testString") == "Foo"
+        file.text = "com.anrisoftware.propertiesutils.testString = Bar\n"
+        file.setLastModified(lastModified)
+        assert factory.fromResource(file).getProperty("testString") == "Bar"
+    }
+
+    @Test
+    void "snapshot with many keys"() {
+        def file = new File(tmp, "many.properties")
+        def expected = new Properties()
+        def random = new Random(4711)
+        for (int i = 0; i < 2000; i++) {
+            expected.put("k${random.nextInt(5000)}.ä€${i % 7}".toString(), "v${random.nextInt(100)}".toString())
+        }
+        file.withWriter("UTF-8") { expected.store(it, null) }
+        def snapshot = new File(tmp, "many.bin")
+        PropertiesSnapshot.load(file.toPath(), Charset.forName("UTF-8"), snapshot.toPath(), null)
+        def properties = PropertiesSnapshot.load(file.toPath(), Charset.forName("UTF-8"), snapshot.toPath(), null)
+        expected.each { k, v -> assert properties.getProperty(k) == v }
+        assert properties.getProperty("k") == null
+        assert properties.getProperty("zzz") == null
+        assert properties.size() == expected.size()
+        assert properties.stringPropertyNames() == expected.stringPropertyNames()
+    }
+
+    @Test
+    void "stream properties"() {
+        def file = new File(tmp, "stream.properties")
+        file.text = '''
+com.anrisoftware.propertiesutils.a = ${x}
+com.anrisoftware.other.b = 1
+com.anrisoftware.propertiesutils.c = 2
+com.anrisoftware.propertiesutils.a = 3
+'''
+        def entries = []
+        new ContextPropertiesFactory(this).stream(file.toURI().toURL(), Charset.forName("UTF-8"), [x: 'y'], { k, v -> entries << [k, v] })
+        assert entries == [['a', 'y'], ['c', '2'], ['a', '3']]
+        def e = assertThrows(IOException, {
+            new ContextPropertiesFactory(this).stream(file.toURI().toURL(), { k, v -> throw new IOException("stop") })
+        })
+        assert e.message == "stop"
+    }
 }
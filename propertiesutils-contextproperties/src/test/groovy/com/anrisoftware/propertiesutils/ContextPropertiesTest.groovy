@@ -118,6 +118,172 @@ class ContextPropertiesTest extends AbstractContextPropertiesTest {
         assertIterableEquals expected, properties.getTypedListProperty(key, stringToType, defaultValue, separatorChars)
     }
 
+    static def getPropertyWithReplacementsProvider() {
+        Stream.of of('test.foo = ${a} and ${b}', [a: 'x', b: 'y'], 'x and y'),
+        of('test.foo = ${a}${a}', [a: 'x'], 'xx'),
+        of('test.foo = ${a} and ${unknown}', [a: 'x'], 'x and ${unknown}'),
+        of('test.foo = ${a', [a: 'x'], '${a'),
+        of('test.foo = no replacements', [a: 'x'], 'no replacements'),
+        of('test.foo = ${a}', [a: '$1 \\ ${b}', b: 'y'], '$1 \\ ${b}')
+    }
+
+    @ParameterizedTest
+    @MethodSource("getPropertyWithReplacementsProvider")
+    void "getProperty with replacements"(String input, Map replacements, def expected) {
+        def properties = new ContextProperties('test', createParentProperties(input)).withReplacements(replacements)
+        assert properties.getProperty('foo') == expected
+        assert properties.getProperty('foo') == expected
+    }
+
+    @Test
+    void "cached properties invalidated on changes"() {
+        def properties = new ContextProperties('test', createParentProperties('test.foo = foo ${a}')).withCachedProperties()
+        assert properties.getProperty('foo') == 'foo ${a}'
+        properties.withReplacement('a', 'x')
+        assert properties.getProperty('foo') == 'foo x'
+        properties.put('foo', 'bar ${a}')
+        assert properties.getProperty('foo') == 'bar x'
+        assert properties.getProperty('bar') == null
+        assert properties.getProperty('bar', 'baz ${a}') == 'baz x'
+        properties.setProperty('bar', 'bar')
+        assert properties.getProperty('bar') == 'bar'
+        properties.remove('test.bar')
+        assert properties.getProperty('bar') == null
+    }
+
+    @Test
+    void "property handle revalidated on changes"() {
+        def properties = new ContextProperties('test', createParentProperties('test.foo = 12'))
+        def handle = properties.handle('foo', Integer, 10)
+        def bar = properties.handle('bar', int.class, 10)
+        assert handle.key == 'test.foo'
+        assert handle.get() == 12
+        assert bar.get() == 10
+        properties.put('foo', '${a}')
+        properties.withReplacement('a', '14')
+        assert handle.get() == 14
+        properties.setProperty('bar', '5')
+        assert bar.get() == 5
+        properties.setProperty('bar', 'x')
+        assertThrows IllegalArgumentException, { bar.get() }
+    }
+
+    @Test
+    void "property handle with converter"() {
+        def properties = new ContextProperties('test', createParentProperties('test.foo = a,b'))
+        def handle = properties.handle('foo', { it.split(',') as List } as StringToType, [])
+        assert handle.get() == ['a', 'b']
+        assertSame handle.get(), handle.get()
+        assertThrows IllegalArgumentException, { properties.handle('foo', Thread, null) }
+    }
+
+    static interface ServerConfig {
+
+        @PropertyKey("max.connections")
+        int getMaxConnections()
+
+        String getName()
+
+        boolean isEnabled()
+
+        List<String> getHosts()
+
+        Integer getTimeout()
+
+        int getPort()
+    }
+
+    @Test
+    void "bind to interface"() {
+        def properties = new ContextProperties('test', createParentProperties('''
+test.max.connections = 10
+test.name = ${user}
+test.enabled = true
+test.hosts = a, b
+'''))
+        properties.withReplacement('user', 'foo')
+        def config = properties.bind(ServerConfig)
+        assert config.maxConnections == 10
+        assert config.name == 'foo'
+        assert config.enabled == true
+        assert config.hosts == ['a', 'b']
+        assert config.timeout == null
+        assertThrows IllegalStateException, { config.port }
+        properties.setProperty('port', '80')
+        assert config.port == 80
+        assert config.toString() == "${ServerConfig.name}[test]"
+        assertThrows IllegalArgumentException, { properties.bind(Runnable) }
+    }
+
+    @Test
+    void "sub context view"() {
+        def properties = new ContextProperties('test', createParentProperties('''
+test.db.url = ${host}/db
+test.db.user = foo
+test.db.pool.size = 5
+test.dbx = x
+test.name = bar
+'''))
+        properties.withReplacement('host', 'localhost')
+        def db = properties.subContext('db')
+        assert db.getContext() == 'test.db'
+        assert db.getProperty('url') == 'localhost/db'
+        assert db.getIntProperty('pool.size', 0) == 5
+        assert db.contextPropertyNames() as List == ['pool.size', 'url', 'user']
+        assert db.subContext('pool').contextPropertyNames() as List == ['size']
+        assert properties.contextPropertyNames() as List == ['db.pool.size', 'db.url', 'db.user', 'dbx', 'name']
+        def handle = db.handle('user', String)
+        assert handle.get() == 'foo'
+        properties.setProperty('db.user', 'baz')
+        properties.setProperty('db.password', 'secret')
+        assert db.getProperty('user') == 'baz'
+        assert handle.get() == 'baz'
+        assert db.contextPropertyNames() as List == ['password', 'pool.size', 'url', 'user']
+        assert db.isFrozen()
+        assertThrows UnsupportedOperationException, { db.setProperty('user', 'x') }
+    }
+
+    @Test
+    void "replacement templates only for placeholders and cleared on changes"() {
+        def properties = new ContextProperties('test', createParentProperties('test.foo = ${a}\ntest.bar = plain'))
+        properties.withReplacement('a', 'x')
+        assert properties.getProperty('bar') == 'plain'
+        assert properties.@templates.isEmpty()
+        assert properties.getProperty('foo') == 'x'
+        assert properties.@templates.size() == 1
+        properties.setProperty('test.baz', 'y')
+        assert properties.@templates.isEmpty()
+        assert properties.getProperty('foo') == 'x'
+    }
+
+    @Test
+    void "context keys cached only for existing properties"() {
+        def properties = new ContextProperties('test', createParentProperties('test.foo = a'))
+        assert properties.getProperty('foo') == 'a'
+        assert properties.getProperty('missing') == null
+        assert properties.getProperty('other', 'b') == 'b'
+        assert properties.@contextKeys.keySet() == ['foo'] as Set
+    }
+
+    @Test
+    void "context property names index updated incrementally"() {
+        def properties = new ContextProperties('test', createParentProperties('test.a = 1\ntest.b = 2'))
+        assert properties.contextPropertyNames() as List == ['a', 'b']
+        def index = properties.@keyIndex
+        properties.setProperty('c', '3')
+        properties.setProperty('b', '4')
+        assert properties.contextPropertyNames() as List == ['a', 'b', 'c']
+        properties.remove('test.b')
+        properties.remove('test.c')
+        assert properties.contextPropertyNames() as List == ['a', 'b']
+        properties.setProperty('d', '5')
+        properties.clear()
+        assert properties.contextPropertyNames() as List == ['a', 'b']
+        properties.replaceDefaults(createParentProperties('test.a = 1\ntest.e = 6'))
+        assert properties.contextPropertyNames() as List == ['a', 'e']
+        assertSame index, properties.@keyIndex
+    }
+
     @Test
     void "equals on context"() {
         def propertiesA = new ContextProperties('test', createParentProperties(''))
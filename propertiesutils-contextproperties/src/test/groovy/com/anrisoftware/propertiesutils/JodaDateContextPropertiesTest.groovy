@@ -15,11 +15,16 @@
  */
 package com.anrisoftware.propertiesutils
 
+import static org.junit.jupiter.api.Assertions.*
 import static org.junit.jupiter.params.provider.Arguments.of
 
+import java.time.Instant
+import java.time.format.DateTimeFormatter
+import java.time.format.DateTimeParseException
 import java.util.stream.Stream
 
 import org.joda.time.Period
+import org.junit.jupiter.api.Test
 import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.MethodSource
 
@@ -55,4 +60,61 @@ class JodaDateContextPropertiesTest extends AbstractContextPropertiesTest {
         def properties = new JodaDateContextProperties('test', createParentProperties(input))
         assert properties.getPeriodProperty('period_foo') == expected
     }
+
+    static def getJavaDurationPropertyTestProvider() {
+        Stream.of of('test.timeout = 250ms', java.time.Duration.ofMillis(250)),
+        of('test.timeout = 5s', java.time.Duration.ofSeconds(5)),
+        of('test.timeout = 1h 30m', java.time.Duration.ofMinutes(90)),
+        of('test.timeout = 1d2h3m4s5ms6us7ns', java.time.Duration.parse('P1DT2H3M4.005006007S')),
+        of('test.timeout = 1500ms', java.time.Duration.ofMillis(1500)),
+        of('test.timeout = -10 s', java.time.Duration.ofSeconds(-10)),
+        of('test.timeout = 3µs', java.time.Duration.ofNanos(3000)),
+        of('test.timeout = PT10H5M30S', java.time.Duration.parse('PT10H5M30S')),
+        of('test.timeout = -PT1S', java.time.Duration.ofSeconds(-1))
+    }
+
+    @ParameterizedTest
+    @MethodSource("getJavaDurationPropertyTestProvider")
+    void "getJavaDurationPropertyTest"(String input, def expected) {
+        def properties = new JodaDateContextProperties('test', createParentProperties(input))
+        assert properties.getJavaDurationProperty('timeout') == expected
+    }
+
+    static def getJavaDurationPropertyInvalidProvider() {
+        Stream.of of('test.timeout = 5'), of('test.timeout = s'), of('test.timeout = 5x'),
+        of('test.timeout = 5 s 3'), of('test.timeout = 99999999999999999999s'), of('test.timeout = -')
+    }
+
+    @ParameterizedTest
+    @MethodSource("getJavaDurationPropertyInvalidProvider")
+    void "getJavaDurationProperty invalid"(String input) {
+        def properties = new JodaDateContextProperties('test', createParentProperties(input))
+        assertThrows DateTimeParseException, { properties.getJavaDurationProperty('timeout') }
+    }
+
+    @Test
+    void "java time properties"() {
+        def properties = new JodaDateContextProperties('test', createParentProperties('''
+test.period = P1Y2M3D
+test.instant = 2021-03-01T10:15:30Z
+'''))
+        assert properties.getJavaPeriodProperty('period') == java.time.Period.of(1, 2, 3)
+        assert properties.getInstantProperty('instant') == Instant.parse('2021-03-01T10:15:30Z')
+        assert properties.getInstantProperty('instant', DateTimeFormatter.ISO_INSTANT) == Instant.parse('2021-03-01T10:15:30Z')
+        assert properties.getJavaDurationProperty('unknown') == null
+        assert properties.getJavaDurationProperty('unknown', java.time.Duration.ofSeconds(1)) == java.time.Duration.ofSeconds(1)
+        assert properties.getJavaPeriodProperty('unknown', java.time.Period.ZERO) == java.time.Period.ZERO
+        assert properties.getInstantProperty('unknown') == null
+    }
+
+    @Test
+    void "cached date properties"() {
+        def properties = new JodaDateContextProperties('test', createParentProperties('test.timeout = 5s\ntest.period = PT10H'))
+        properties.withTypedCache(10)
+        assertSame properties.getJavaDurationProperty('timeout'), properties.getJavaDurationProperty('timeout')
+        assertSame properties.getDurationProperty('period'), properties.getDurationProperty('period')
+        assertSame properties.getPeriodProperty('period'), properties.getPeriodProperty('period')
+        properties.setProperty('timeout', '6s')
+        assert properties.getJavaDurationProperty('timeout') == java.time.Duration.ofSeconds(6)
+    }
 }
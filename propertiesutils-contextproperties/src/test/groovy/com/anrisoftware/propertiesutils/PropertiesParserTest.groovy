@@ -0,0 +1,186 @@
+/*
+ * Copyright 2012-2021 Erwin Müller <erwin.mueller@anrisoftware.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anrisoftware.propertiesutils
+
+import static java.nio.charset.StandardCharsets.*
+import static org.junit.jupiter.api.Assertions.*
+import static org.junit.jupiter.params.provider.Arguments.of
+
+import java.nio.ByteBuffer
+import java.nio.charset.Charset
+import java.util.stream.Stream
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.MethodSource
+
+/**
+ * @see PropertiesParser
+ *
+ * @author Erwin Müller, erwin.mueller@deventm.de
+ * @since 4.7.0
+ */
+class PropertiesParserTest {
+
+    static final String ALPHABET = 'ab =:#!\\\\ \t\f\r\n\nu0041äß€'
+
+    static def parseProvider() {
+        def inputs = [
+            'a = b\nc=d\ne:f\ng h\ni\n',
+            '# comment\n! comment\n  \n\ta = b\\\n    c\\\r\n  d\r\n',
+            'key\\ with\\:sep\\=s = value\\twith\\nescapes\\u0041\\u00e4\n',
+            'a\\\n#not a comment\nb = #value\n# comment \\\nc = d',
+            'a = b\\',
+            'a = b\\\\\nc = d\\\\\\\n e',
+            '\\\n#c\nx=y\n\\\n\n',
+            'ä = ü\nschlüssel = wert € \\\n  weiter\n',
+            '=\n:\n a\n\f\n',
+            'dup = 1\ndup = 2\n',
+            'a\r\rb = c\r\n\\\r\nd',
+        ]
+        def random = new Random(4711)
+        for (int i = 0; i < 200; i++) {
+            def b = new StringBuilder()
+            int n = random.nextInt(80)
+            for (int j = 0; j < n; j++) {
+                b.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())))
+            }
+            inputs << b.toString()
+        }
+        Stream.of(inputs.collectMany { [of(it, ISO_8859_1), of(it, UTF_8)] } as Object[])
+    }
+
+    @ParameterizedTest
+    @MethodSource("parseProvider")
+    void "parse same as Properties load"(String input, Charset charset) {
+        def bytes = input.getBytes(charset)
+        def expected = new Properties()
+        def expectedError = null
+        try {
+            expected.load(new InputStreamReader(new ByteArrayInputStream(bytes), charset))
+        } catch (IllegalArgumentException e) {
+            expectedError = e
+        }
+        def properties = [:]
+        try {
+            new PropertiesParser(charset).parse(ByteBuffer.wrap(bytes), { k, v -> properties[k] = v })
+            assert expectedError == null
+        } catch (IllegalArgumentException e) {
+            assert expectedError != null
+            return
+        }
+        assert properties == expected
+    }
+
+    static def parseParallelProvider() {
+        def random = new Random(4712)
+        def inputs = []
+        for (int i = 0; i < 50; i++) {
+            def b = new StringBuilder()
+            int n = random.nextInt(4000)
+            for (int j = 0; j < n; j++) {
+                b.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())))
+            }
+            inputs << b.toString()
+        }
+        Stream.of(inputs.collectMany { [of(it, ISO_8859_1), of(it, UTF_8)] } as Object[])
+    }
+
+    @ParameterizedTest
+    @MethodSource("parseParallelProvider")
+    void "parse parallel same as Properties load"(String input, Charset charset) {
+        def bytes = input.getBytes(charset)
+        def expected = new Properties()
+        def expectedError = null
+        try {
+            expected.load(new InputStreamReader(new ByteArrayInputStream(bytes), charset))
+        } catch (IllegalArgumentException e) {
+            expectedError = e
+        }
+        def properties = [:]
+        try {
+            PropertiesParser.parseParallel(ByteBuffer.wrap(bytes), charset, 16, { k, v -> properties[k] = v })
+            assert expectedError == null
+        } catch (IllegalArgumentException e) {
+            assert expectedError != null
+            return
+        }
+        assert properties == expected
+    }
+
+    @ParameterizedTest
+    @MethodSource("parseProvider")
+    void "stream same as Properties load"(String input, Charset charset) {
+        def bytes = input.getBytes(charset)
+        def expected = new Properties()
+        try {
+            expected.load(new InputStreamReader(new ByteArrayInputStream(bytes), charset))
+        } catch (IllegalArgumentException e) {
+            return
+        }
+        for (def blockSize : [1, 3, 16]) {
+            def properties = [:]
+            PropertiesParser.stream(new ByteArrayInputStream(bytes), charset, blockSize, { k, v -> properties[k] = v })
+            assert properties == expected
+        }
+    }
+
+    @Test
+    void "stream other charset"() {
+        def input = 'a = b\\\n  c\n\uD83D\uDE00 = ä\n'
+        def properties = [:]
+        PropertiesParser.stream(new ByteArrayInputStream(input.getBytes(UTF_16)), UTF_16, 4, { k, v -> properties[k] = v })
+        assert properties == ['a': 'bc', '\uD83D\uDE00': 'ä']
+    }
+
+    @TempDir
+    File tmp
+
+    @Test
+    void "load mapped file"() {
+        def file = new File(tmp, "large.properties")
+        file.withWriter("UTF-8") { w ->
+            for (int i = 0; i < 10000; i++) {
+                w.write "key.$i = value $i ä\\\n    continued\n"
+            }
+        }
+        def properties = [:]
+        PropertiesParser.load(file.toPath(), UTF_8, { k, v -> properties[k] = v })
+        def expected = new Properties()
+        file.withReader("UTF-8") { expected.load(it) }
+        assert properties.size() == 10000
+        assert properties == expected
+    }
+
+    @Test
+    void "load large file in parallel"() {
+        def file = new File(tmp, "large.properties")
+        file.withWriter("UTF-8") { w ->
+            for (int i = 0; i < 100000; i++) {
+                w.write "key.${i % 90000} = value $i ä\\\n    continued\\\\\n"
+            }
+        }
+        def properties = [:]
+        PropertiesParser.load(file.toPath(), UTF_8, { k, v -> properties[k] = v })
+        def expected = new Properties()
+        file.withReader("UTF-8") { expected.load(it) }
+        assert file.length() > 1024 * 1024
+        assert properties.size() == 90000
+        assert properties['key.5'] == 'value 90005 äcontinued\\'
+        assert properties == expected
+    }
+}
@@ -18,8 +18,11 @@ package com.anrisoftware.propertiesutils
 import static org.junit.jupiter.api.Assertions.*
 import static org.junit.jupiter.params.provider.Arguments.of
 
+import java.text.NumberFormat
+import java.text.SimpleDateFormat
 import java.util.stream.Stream
 
+import org.junit.jupiter.api.Test
 import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.MethodSource
 
@@ -73,6 +76,83 @@ class TypedPropertiesTest {
         assert properties.getNumberProperty('double_foo').doubleValue() == expected
     }
 
+    static def getPrimitivePropertyData() {
+        Stream.of of('foo = 12', 12, 12l, 12.0d),
+        of('foo = 12.0 ', 12, 12l, 12.0d),
+        of('foo = -7', -7, -7l, -7.0d),
+        of('', 1, 1l, 1.0d)
+    }
+
+    @ParameterizedTest
+    @MethodSource("getPrimitivePropertyData")
+    void "primitive number properties"(String input, int expectedInt, long expectedLong, double expectedDouble) {
+        def parentProperties = new Properties()
+        parentProperties.load new StringReader(input)
+        def properties = new TypedProperties(parentProperties)
+        assert properties.getIntProperty('foo', 1) == expectedInt
+        assert properties.getLongProperty('foo', 1l) == expectedLong
+        assert properties.getDoubleProperty('foo', 1.0d) == expectedDouble
+    }
+
+    @Test
+    void "primitive long property without loss of precision"() {
+        def parentProperties = new Properties()
+        parentProperties.setProperty('foo', '9007199254740993')
+        def properties = new TypedProperties(parentProperties)
+        assert properties.getLongProperty('foo', 0l) == 9007199254740993l
+        assertThrows NumberFormatException, { properties.getIntProperty('foo', 0) }
+    }
+
+    @Test
+    void "primitive long property with decimal point without loss of precision"() {
+        def parentProperties = new Properties()
+        parentProperties.setProperty('foo', '9007199254740993.0')
+        parentProperties.setProperty('bar', '12345678901234567.5')
+        parentProperties.setProperty('baz', '9223372036854775808.0')
+        def properties = new TypedProperties(parentProperties)
+        assert properties.getLongProperty('foo', 0l) == 9007199254740993l
+        assertThrows NumberFormatException, { properties.getLongProperty('bar', 0l) }
+        assertThrows NumberFormatException, { properties.getLongProperty('baz', 0l) }
+    }
+
+    @Test
+    void "primitive boolean property"() {
+        def parentProperties = new Properties()
+        parentProperties.setProperty('foo', 'true')
+        def properties = new TypedProperties(parentProperties)
+        assert properties.getBooleanProperty('foo', false) == true
+        assert properties.getBooleanProperty('bar', true) == true
+    }
+
+    static def getArrayPropertyData() {
+        Stream.of of('foo = 8080,8081;8082', ' ,;', [8080, 8081, 8082]),
+        of('foo = ,1,, 2 ,', ',', [1, 2]),
+        of('foo = 1 2\t3', null, [1, 2, 3]),
+        of('foo =', ',', []),
+        of('', ',', [])
+    }
+
+    @ParameterizedTest
+    @MethodSource("getArrayPropertyData")
+    void "primitive array properties"(String input, String separatorChars, List expected) {
+        def parentProperties = new Properties()
+        parentProperties.load new StringReader(input)
+        def properties = new TypedProperties(parentProperties)
+        assertArrayEquals expected as int[], properties.getIntArrayProperty('foo', separatorChars)
+        assertArrayEquals expected as long[], properties.getLongArrayProperty('foo', separatorChars)
+        assertArrayEquals expected as double[], properties.getDoubleArrayProperty('foo', separatorChars)
+    }
+
+    @Test
+    void "cached primitive array properties"() {
+        def parentProperties = new Properties()
+        parentProperties.setProperty('foo', '1,2')
+        def properties = new TypedProperties(parentProperties).withCache(10)
+        def values = properties.getIntArrayProperty('foo')
+        values[0] = 5
+        assertArrayEquals([1, 2] as int[], properties.getIntArrayProperty('foo'))
+    }
+
     static def getListPropertyData() {
         Stream.of of('list_foo = foo,bar,baz', ['foo', 'bar', 'baz'], ','),
         of('list_foo = foo;bar;baz', ['foo', 'bar', 'baz'], ';')
@@ -87,4 +167,51 @@ class TypedPropertiesTest {
         def output = properties.getListProperty('list_foo')
         assertIterableEquals expected, output
     }
+
+    @Test
+    void "cached properties parsed once and updated on change"() {
+        def parentProperties = new Properties()
+        parentProperties.load new StringReader('url_foo = http://foo\nlist_foo = 1,2')
+        def properties = new TypedProperties(parentProperties).withCache(10)
+        def url = properties.getURLProperty('url_foo')
+        assert url == new URL('http://foo')
+        assertSame url, properties.getURLProperty('url_foo')
+        def list = properties.getTypedListProperty('list_foo', NumberFormat.getIntegerInstance())
+        assertIterableEquals([1l, 2l], list)
+        assertSame list, properties.getTypedListProperty('list_foo', NumberFormat.getIntegerInstance())
+        assertThrows UnsupportedOperationException, { list.add(3l) }
+        parentProperties.setProperty('url_foo', 'http://bar')
+        assert properties.getURLProperty('url_foo') == new URL('http://bar')
+    }
+
+    @Test
+    void "cached properties do not share mutable format values"() {
+        def parentProperties = new Properties()
+        parentProperties.load new StringReader('date_foo = 2020-01-02\ndates_foo = 2020-01-02,2020-01-03\nnumber_foo = 123456789')
+        def properties = new TypedProperties(parentProperties).withCache(10)
+        def format = new SimpleDateFormat('yyyy-MM-dd')
+        Date date = properties.getTypedProperty('date_foo', format)
+        def time = date.time
+        date.time = 0
+        Date other = properties.getTypedProperty('date_foo', format)
+        assertNotSame date, other
+        assert other.time == time
+        def dates = properties.getTypedListProperty('dates_foo', format)
+        dates[0].time = 0
+        assert properties.getTypedListProperty('dates_foo', format)[0].time == time
+        def number = properties.getTypedProperty('number_foo', NumberFormat.getIntegerInstance())
+        assertSame number, properties.getTypedProperty('number_foo', NumberFormat.getIntegerInstance())
+    }
+
+    @Test
+    void "cached properties evicted"() {
+        def parentProperties = new Properties()
+        parentProperties.load new StringReader('a = 1\nb = 2\nc = 3')
+        def properties = new TypedProperties(parentProperties).withCache(2)
+        def a = properties.getNumberProperty('a')
+        properties.getNumberProperty('b')
+        properties.getNumberProperty('c')
+        assertNotSame a, properties.getNumberProperty('a')
+        assert properties.getNumberProperty('a') == 1.0d
+    }
 }
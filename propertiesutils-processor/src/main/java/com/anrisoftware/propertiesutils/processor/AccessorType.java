@@ -0,0 +1,252 @@
+/*
+ * Copyright 2012-2021 Erwin Müller <erwin.mueller@anrisoftware.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anrisoftware.propertiesutils.processor;
+
+import java.net.URI;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.anrisoftware.propertiesutils.ContextProperties;
+
+/**
+ * The types that are supported as the return types of the methods of a
+ * configuration interface.
+ * <p>
+ * Each type has the expression that reads the value from the
+ * {@link ContextProperties} in the generated class and reads the value in the
+ * same way at compile time to check the value of the resource.
+ *
+ * @author Erwin Müller, erwin.mueller@deventm.de
+ * @since 4.7.0
+ */
+enum AccessorType {
+
+    STRING("java.lang.String", "properties.getProperty(%s)") {
+        @Override
+        Object read(ContextProperties p, String key) {
+            return p.getProperty(key);
+        }
+    },
+
+    BOOLEAN("boolean", "properties.getBooleanProperty(%s, false)") {
+        @Override
+        Object read(ContextProperties p, String key) {
+            return p.getBooleanProperty(key, false);
+        }
+    },
+
+    BOOLEAN_OBJECT("java.lang.Boolean", "properties.getBooleanProperty(%s)") {
+        @Override
+        Object read(ContextProperties p, String key) {
+            return p.getBooleanProperty(key);
+        }
+    },
+
+    INT("int", "properties.getIntProperty(%s, 0)") {
+        @Override
+        Object read(ContextProperties p, String key) {
+            return p.getIntProperty(key, 0);
+        }
+    },
+
+    INTEGER("java.lang.Integer", INT),
+
+    LONG("long", "properties.getLongProperty(%s, 0L)") {
+        @Override
+        Object read(ContextProperties p, String key) {
+            return p.getLongProperty(key, 0L);
+        }
+    },
+
+    LONG_OBJECT("java.lang.Long", LONG),
+
+    DOUBLE("double", "properties.getDoubleProperty(%s, 0.0)") {
+        @Override
+        Object read(ContextProperties p, String key) {
+            return p.getDoubleProperty(key, 0.0);
+        }
+    },
+
+    DOUBLE_OBJECT("java.lang.Double", DOUBLE),
+
+    CHAR("char", "properties.getCharProperty(%s)") {
+        @Override
+        Object read(ContextProperties p, String key) {
+            return p.getCharProperty(key);
+        }
+    },
+
+    CHARACTER("java.lang.Character", CHAR),
+
+    NUMBER("java.lang.Number", "properties.getNumberProperty(%s)") {
+        @Override
+        Object read(ContextProperties p, String key) {
+            return p.getNumberProperty(key);
+        }
+    },
+
+    CHARSET("java.nio.charset.Charset", "properties.getCharsetProperty(%s)") {
+        @Override
+        Object read(ContextProperties p, String key) {
+            return p.getCharsetProperty(key);
+        }
+    },
+
+    URI_TYPE("java.net.URI", "java.net.URI.create(properties.getProperty(%s))") {
+        @Override
+        Object read(ContextProperties p, String key) {
+            return URI.create(p.getProperty(key));
+        }
+    },
+
+    URL_TYPE("java.net.URL", "properties.handle(%s, java.net.URL.class).get()") {
+        @Override
+        Object read(ContextProperties p, String key) {
+            return p.handle(key, URL.class).get();
+        }
+    },
+
+    FILE("java.io.File", "properties.getFileProperty(%s)") {
+        @Override
+        Object read(ContextProperties p, String key) {
+            return p.getFileProperty(key);
+        }
+    },
+
+    STRING_LIST("java.util.List<java.lang.String>", "properties.getListProperty(%s)") {
+        @Override
+        Object read(ContextProperties p, String key) {
+            return p.getListProperty(key);
+        }
+    },
+
+    INT_ARRAY("int[]", "properties.getIntArrayProperty(%s)") {
+        @Override
+        Object read(ContextProperties p, String key) {
+            return p.getIntArrayProperty(key);
+        }
+    },
+
+    LONG_ARRAY("long[]", "properties.getLongArrayProperty(%s)") {
+        @Override
+        Object read(ContextProperties p, String key) {
+            return p.getLongArrayProperty(key);
+        }
+    },
+
+    DOUBLE_ARRAY("double[]", "properties.getDoubleArrayProperty(%s)") {
+        @Override
+        Object read(ContextProperties p, String key) {
+            return p.getDoubleArrayProperty(key);
+        }
+    };
+
+    private static final Map<String, AccessorType> TYPES = createTypes();
+
+    /**
+     * Returns the accessor type for the return type.
+     *
+     * @param typeName the name of the type, as returned by
+     *                 {@link javax.lang.model.type.TypeMirror#toString()}.
+     *
+     * @return the {@link AccessorType} or {@code null} if the type is not
+     *         supported.
+     */
+    static AccessorType forType(String typeName) {
+        return TYPES.get(typeName);
+    }
+
+    private static Map<String, AccessorType> createTypes() {
+        Map<String, AccessorType> map = new HashMap<>();
+        for (AccessorType type : values()) {
+            map.put(type.typeName, type);
+        }
+        return map;
+    }
+
+    private final String typeName;
+
+    private final String expression;
+
+    private final AccessorType primitive;
+
+    AccessorType(String typeName, String expression) {
+        this.typeName = typeName;
+        this.expression = expression;
+        this.primitive = null;
+    }
+
+    /**
+     * The wrapper type is read with the accessor of the primitive type.
+     */
+    AccessorType(String typeName, AccessorType primitive) {
+        this.typeName = typeName;
+        this.expression = primitive.expression;
+        this.primitive = primitive;
+    }
+
+    /**
+     * Returns the expression that reads the value in the generated class.
+     *
+     * @param key the {@link String} literal of the key.
+     */
+    String getExpression(String key) {
+        return String.format(expression, key);
+    }
+
+    /**
+     * Returns if the value is an array that is copied on each call.
+     */
+    boolean isArray() {
+        return typeName.endsWith("[]");
+    }
+
+    /**
+     * Returns if the value of a missing property cannot be {@code null}.
+     */
+    boolean isPrimitive() {
+        return typeName.indexOf('.') == -1 && !isArray();
+    }
+
+    /**
+     * Returns the expression of the value of the field if the property is not
+     * set.
+     */
+    String getZeroValue() {
+        if (!isPrimitive()) {
+            return "null";
+        }
+        switch (this) {
+        case BOOLEAN:
+            return "false";
+        case CHAR:
+            return "'\\0'";
+        default:
+            return "0";
+        }
+    }
+
+    /**
+     * Reads the value of the property.
+     *
+     * @throws RuntimeException if the value cannot be converted.
+     */
+    Object read(ContextProperties p, String key) {
+        return primitive.read(p, key);
+    }
+
+}
@@ -0,0 +1,369 @@
+/*
+ * Copyright 2012-2021 Erwin Müller <erwin.mueller@anrisoftware.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anrisoftware.propertiesutils.processor;
+
+import static java.lang.String.format;
+import static javax.tools.Diagnostic.Kind.ERROR;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.tools.FileObject;
+import javax.tools.JavaFileManager.Location;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+import com.anrisoftware.propertiesutils.ContextProperties;
+import com.anrisoftware.propertiesutils.PropertiesConfig;
+import com.anrisoftware.propertiesutils.PropertyKey;
+
+/**
+ * Generates the implementations of the configuration interfaces that are
+ * annotated with {@link PropertiesConfig}.
+ * <p>
+ * The generated class reads the value of each property in its constructor
+ * with the typed accessor of {@link ContextProperties} that is selected at
+ * compile time, so no reflection or converter look-up is needed at run time.
+ * The default method of the interface is only called from the accessor if its
+ * property is not set, after the object is fully constructed.
+ * If the annotation sets a resource, each key of an abstract method must be
+ * defined in the resource and its value must be convertible to the return
+ * type of the method, otherwise the compilation fails.
+ *
+ * @author Erwin Müller, erwin.mueller@deventm.de
+ * @since 4.7.0
+ */
+public class PropertiesConfigProcessor extends AbstractProcessor {
+
+    private static final String CLASS_SUFFIX = "Properties";
+
+    private static final String GENERATED_ANNOTATION = "javax.annotation.processing.Generated";
+
+    private static final Location[] RESOURCE_LOCATIONS = { StandardLocation.CLASS_OUTPUT,
+            StandardLocation.SOURCE_PATH, StandardLocation.CLASS_PATH };
+
+    private static final String NOT_INTERFACE_MESSAGE = "The type '%s' is not an interface.";
+
+    private static final String GENERIC_MESSAGE = "The interface '%s' must not have type parameters.";
+
+    private static final String UNSUPPORTED_METHOD_MESSAGE = "The method '%s' is not a property accessor.";
+
+    private static final String UNSUPPORTED_TYPE_MESSAGE = "The return type '%s' of the method '%s' is not supported.";
+
+    private static final String RESOURCE_MESSAGE = "Could not load the properties resource '%s'.";
+
+    private static final String MISSING_MESSAGE = "The property '%s' is not defined in the resource '%s'.";
+
+    private static final String INVALID_MESSAGE = "The value '%s' of the property '%s' is not a valid '%s': %s";
+
+    private static final String NOT_SET_MESSAGE = "The property '%s' is not set.";
+
+    private static final String WRITE_MESSAGE = "Could not write the class '%s': %s";
+
+    private static final String SET_SUFFIX = "$set";
+
+    private Filer filer;
+
+    private Messager messager;
+
+    private Elements elements;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.filer = processingEnv.getFiler();
+        this.messager = processingEnv.getMessager();
+        this.elements = processingEnv.getElementUtils();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(PropertiesConfig.class.getName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(PropertiesConfig.class)) {
+            if (element.getKind() != ElementKind.INTERFACE) {
+                messager.printMessage(ERROR, format(NOT_INTERFACE_MESSAGE, element), element);
+                continue;
+            }
+            processInterface((TypeElement) element);
+        }
+        return true;
+    }
+
+    private void processInterface(TypeElement type) {
+        if (!type.getTypeParameters().isEmpty()) {
+            messager.printMessage(ERROR, format(GENERIC_MESSAGE, type), type);
+            return;
+        }
+        List<Accessor> accessors = createAccessors(type);
+        if (accessors == null) {
+            return;
+        }
+        PropertiesConfig config = type.getAnnotation(PropertiesConfig.class);
+        if (!config.resource().isEmpty() && !checkResource(type, config, accessors)) {
+            return;
+        }
+        writeClass(type, accessors);
+    }
+
+    private List<Accessor> createAccessors(TypeElement type) {
+        List<Accessor> accessors = new ArrayList<>();
+        boolean valid = true;
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+            Set<Modifier> modifiers = method.getModifiers();
+            if (method.getEnclosingElement().getKind() != ElementKind.INTERFACE
+                    || modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.PRIVATE)) {
+                continue;
+            }
+            boolean isDefault = modifiers.contains(Modifier.DEFAULT);
+            if (!method.getParameters().isEmpty() || method.getReturnType().getKind() == TypeKind.VOID) {
+                if (!isDefault) {
+                    messager.printMessage(ERROR, format(UNSUPPORTED_METHOD_MESSAGE, method), method);
+                    valid = false;
+                }
+                continue;
+            }
+            String returnType = method.getReturnType().toString();
+            AccessorType accessorType = AccessorType.forType(returnType);
+            if (accessorType == null) {
+                messager.printMessage(ERROR, format(UNSUPPORTED_TYPE_MESSAGE, returnType, method), method);
+                valid = false;
+                continue;
+            }
+            accessors.add(new Accessor(method, propertyKey(method), accessorType, isDefault));
+        }
+        return valid ? accessors : null;
+    }
+
+    /**
+     * Returns the key of the property, either from the {@link PropertyKey}
+     * annotation or the name of the bean property of the method. The same rules
+     * as in {@link ContextProperties#bind(Class)} are applied.
+     */
+    private static String propertyKey(ExecutableElement method) {
+        PropertyKey key = method.getAnnotation(PropertyKey.class);
+        if (key != null) {
+            return key.value();
+        }
+        String name = method.getSimpleName().toString();
+        if (name.length() > 3 && name.startsWith("get")) {
+            return uncapitalize(name.substring(3));
+        }
+        if (name.length() > 2 && name.startsWith("is") && method.getReturnType().getKind() == TypeKind.BOOLEAN) {
+            return uncapitalize(name.substring(2));
+        }
+        return name;
+    }
+
+    private static String uncapitalize(String name) {
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private boolean checkResource(TypeElement type, PropertiesConfig config, List<Accessor> accessors) {
+        Properties resource = loadResource(config.resource());
+        if (resource == null) {
+            messager.printMessage(ERROR, format(RESOURCE_MESSAGE, config.resource()), type);
+            return false;
+        }
+        ContextProperties properties = new ContextProperties(config.context(), resource);
+        boolean valid = true;
+        for (Accessor accessor : accessors) {
+            String value = properties.getProperty(accessor.key);
+            if (value == null) {
+                if (!accessor.isDefault) {
+                    messager.printMessage(ERROR, format(MISSING_MESSAGE, accessor.key, config.resource()),
+                            accessor.method);
+                    valid = false;
+                }
+                continue;
+            }
+            if (value.contains("${")) {
+                // the value is only known after the replacements are applied
+                continue;
+            }
+            try {
+                accessor.type.read(properties, accessor.key);
+            } catch (RuntimeException e) {
+                messager.printMessage(ERROR,
+                        format(INVALID_MESSAGE, value, accessor.key, accessor.method.getReturnType(), e),
+                        accessor.method);
+                valid = false;
+            }
+        }
+        return valid;
+    }
+
+    private Properties loadResource(String resource) {
+        for (Location location : RESOURCE_LOCATIONS) {
+            try {
+                FileObject file = filer.getResource(location, "", resource);
+                try (InputStream stream = file.openInputStream();
+                        Reader reader = new InputStreamReader(stream, Charset.defaultCharset())) {
+                    Properties properties = new Properties();
+                    properties.load(reader);
+                    return properties;
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                // try the next location
+            }
+        }
+        return null;
+    }
+
+    private void writeClass(TypeElement type, List<Accessor> accessors) {
+        PackageElement packageElement = elements.getPackageOf(type);
+        String packageName = packageElement.getQualifiedName().toString();
+        String typeName = type.getQualifiedName().toString();
+        String className = generatedName(type, packageName);
+        String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+        try {
+            JavaFileObject file = filer.createSourceFile(qualifiedName, type);
+            try (PrintWriter out = new PrintWriter(file.openWriter())) {
+                writeClass(out, packageName, typeName, className, accessors);
+            }
+        } catch (IOException e) {
+            messager.printMessage(ERROR, format(WRITE_MESSAGE, qualifiedName, e), type);
+        }
+    }
+
+    /**
+     * Returns the name of the generated class. The names of enclosing types of a
+     * nested interface are joined with {@code _}.
+     */
+    private String generatedName(TypeElement type, String packageName) {
+        String binaryName = elements.getBinaryName(type).toString();
+        if (!packageName.isEmpty()) {
+            binaryName = binaryName.substring(packageName.length() + 1);
+        }
+        return binaryName.replace('$', '_') + CLASS_SUFFIX;
+    }
+
+    private void writeClass(PrintWriter out, String packageName, String typeName, String className,
+            List<Accessor> accessors) {
+        if (!packageName.isEmpty()) {
+            out.printf("package %s;%n%n", packageName);
+        }
+        out.printf("/**%n * Properties of {@link %s} that are read from the context properties.%n */%n", typeName);
+        if (elements.getTypeElement(GENERATED_ANNOTATION) != null) {
+            out.printf("@%s(\"%s\")%n", GENERATED_ANNOTATION, getClass().getName());
+        }
+        out.printf("public final class %s implements %s {%n", className, typeName);
+        for (Accessor accessor : accessors) {
+            out.printf("%n    private final %s %s;%n", accessor.method.getReturnType(), accessor.field);
+            if (accessor.isDefault) {
+                out.printf("%n    private final boolean %s%s;%n", accessor.field, SET_SUFFIX);
+            }
+        }
+        out.printf("%n    public %s(%s properties) {%n", className, ContextProperties.class.getName());
+        for (Accessor accessor : accessors) {
+            writeRead(out, accessor);
+        }
+        out.printf("    }%n");
+        for (Accessor accessor : accessors) {
+            out.printf("%n    @Override%n    public %s %s() {%n", accessor.method.getReturnType(),
+                    accessor.method.getSimpleName());
+            if (accessor.isDefault) {
+                out.printf("        if (!%s%s) {%n", accessor.field, SET_SUFFIX);
+                out.printf("            return %s.super.%s();%n        }%n", typeName, accessor.method.getSimpleName());
+            }
+            if (accessor.type.isArray()) {
+                out.printf("        return %1$s == null ? null : %1$s.clone();%n    }%n", accessor.field);
+            } else {
+                out.printf("        return %s;%n    }%n", accessor.field);
+            }
+        }
+        out.printf("%n    @Override%n    public String toString() {%n");
+        out.printf("        return \"%s\";%n    }%n", className);
+        out.printf("%n}%n");
+    }
+
+    private void writeRead(PrintWriter out, Accessor accessor) {
+        String key = elements.getConstantExpression(accessor.key);
+        out.printf("        if (properties.getProperty(%s) == null) {%n", key);
+        if (accessor.isDefault) {
+            out.printf("            this.%s = %s;%n", accessor.field, accessor.type.getZeroValue());
+            out.printf("            this.%s%s = false;%n", accessor.field, SET_SUFFIX);
+        } else if (accessor.type.isPrimitive()) {
+            out.printf("            throw new IllegalStateException(%s);%n",
+                    elements.getConstantExpression(format(NOT_SET_MESSAGE, accessor.key)));
+        } else {
+            out.printf("            this.%s = null;%n", accessor.field);
+        }
+        out.printf("        } else {%n");
+        out.printf("            this.%s = %s;%n", accessor.field, accessor.type.getExpression(key));
+        if (accessor.isDefault) {
+            out.printf("            this.%s%s = true;%n", accessor.field, SET_SUFFIX);
+        }
+        out.printf("        }%n");
+    }
+
+    /**
+     * The method of the interface that returns a property.
+     */
+    private static final class Accessor {
+
+        private final ExecutableElement method;
+
+        private final String key;
+
+        private final AccessorType type;
+
+        private final boolean isDefault;
+
+        private final String field;
+
+        Accessor(ExecutableElement method, String key, AccessorType type, boolean isDefault) {
+            this.method = method;
+            this.key = key;
+            this.type = type;
+            this.isDefault = isDefault;
+            this.field = method.getSimpleName().toString();
+        }
+    }
+
+}
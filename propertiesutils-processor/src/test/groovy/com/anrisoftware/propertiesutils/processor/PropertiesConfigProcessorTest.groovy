@@ -0,0 +1,159 @@
+/*
+ * Copyright 2012-2021 Erwin Müller <erwin.mueller@anrisoftware.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.anrisoftware.propertiesutils.processor
+
+import static org.junit.jupiter.api.Assertions.*
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+import javax.tools.DiagnosticCollector
+import javax.tools.ToolProvider
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+
+import com.anrisoftware.propertiesutils.ContextProperties
+
+/**
+ * @see PropertiesConfigProcessor
+ *
+ * @author Erwin Müller, erwin.mueller@deventm.de
+ * @since 4.7.0
+ */
+class PropertiesConfigProcessorTest {
+
+    static final String CONFIG = '''
+package com.example;
+
+import com.anrisoftware.propertiesutils.PropertiesConfig;
+import com.anrisoftware.propertiesutils.PropertyKey;
+
+@PropertiesConfig(context = "com.example", resource = "com/example/server.properties")
+public interface ServerConfig {
+
+    @PropertyKey("max.connections")
+    int getMaxConnections();
+
+    String getName();
+
+    java.util.List<String> getHosts();
+
+    default int getPort() {
+        return 8080;
+    }
+
+    java.net.URL getHome();
+
+    default String getAddress() {
+        return getName() + ":" + getPort() + "/" + getMaxConnections();
+    }
+}
+'''
+
+    @TempDir
+    Path tmp
+
+    @Test
+    void "generate config class"() {
+        def diagnostics = compile(CONFIG, '''
+com.example.max.connections = 10
+com.example.name = foo
+com.example.hosts = a, b
+com.example.home = http://localhost/
+''')
+        assert diagnostics.diagnostics.empty
+        def loader = new URLClassLoader([tmp.resolve('classes').toUri().toURL()] as URL[], getClass().classLoader)
+        def type = loader.loadClass('com.example.ServerConfigProperties')
+        def p = new ContextProperties('com.example', new Properties())
+        p.setProperty('max.connections', '12')
+        p.setProperty('name', 'bar')
+        def config = type.getConstructor(ContextProperties).newInstance(p)
+        assert config.maxConnections == 12
+        assert config.name == 'bar'
+        assert config.hosts == null
+        assert config.port == 8080
+        assert config.home == null
+        assert config.address == 'bar:8080/12'
+        p.setProperty('port', '9090')
+        p.setProperty('home', 'http://localhost/')
+        config = type.getConstructor(ContextProperties).newInstance(p)
+        assert config.port == 9090
+        assert config.home == new URL('http://localhost/')
+        assert config.address == 'bar:9090/12'
+    }
+
+    @Test
+    void "invalid url value in resource"() {
+        def diagnostics = compile(CONFIG, '''
+com.example.max.connections = 10
+com.example.name = foo
+com.example.hosts = a, b
+com.example.home = foo://
+''')
+        assert diagnostics.diagnostics.size() == 1
+        assert diagnostics.diagnostics[0].getMessage(null).startsWith("The value 'foo://' of the property 'home' is not a valid 'java.net.URL'")
+    }
+
+    @Test
+    void "missing property in resource"() {
+        def diagnostics = compile(CONFIG, '''
+com.example.name = foo
+com.example.hosts = a, b
+com.example.home = http://localhost/
+''')
+        assert diagnostics.diagnostics.size() == 1
+        assert diagnostics.diagnostics[0].getMessage(null) == "The property 'max.connections' is not defined in the resource 'com/example/server.properties'."
+    }
+
+    @Test
+    void "invalid property value in resource"() {
+        def diagnostics = compile(CONFIG, '''
+com.example.max.connections = ten
+com.example.name = foo
+com.example.hosts = a, b
+com.example.home = http://localhost/
+''')
+        assert diagnostics.diagnostics.size() == 1
+        assert diagnostics.diagnostics[0].getMessage(null).startsWith("The value 'ten' of the property 'max.connections' is not a valid 'int'")
+    }
+
+    DiagnosticCollector compile(String source, String resource) {
+        def sources = tmp.resolve('src')
+        def classes = tmp.resolve('classes')
+        Files.createDirectories(sources.resolve('com/example'))
+        Files.createDirectories(classes)
+        def sourceFile = sources.resolve('com/example/ServerConfig.java')
+        sourceFile.toFile().text = source
+        sources.resolve('com/example/server.properties').toFile().text = resource
+        def compiler = ToolProvider.systemJavaCompiler
+        def diagnostics = new DiagnosticCollector()
+        def fileManager = compiler.getStandardFileManager(diagnostics, null, null)
+        def options = [
+            '-classpath',
+            System.getProperty('java.class.path'),
+            '-sourcepath',
+            sources.toString(),
+            '-d',
+            classes.toString()
+        ]
+        def task = compiler.getTask(null, fileManager, diagnostics, options, null, fileManager.getJavaFileObjects(sourceFile.toFile()))
+        task.processors = [new PropertiesConfigProcessor()]
+        task.call()
+        fileManager.close()
+        return diagnostics
+    }
+}